@@ -0,0 +1,94 @@
+package uk.ac.soton.comp1206.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Runs every benchmark and compares the results with a saved baseline, failing when any benchmark got slower than
+ * the allowed tolerance.
+ *
+ * Usage: java -cp target/benchmarks.jar uk.ac.soton.comp1206.benchmark.BenchmarkGate [--update] [baseline file]
+ *
+ * With --update the results are saved as the new baseline instead. The tolerance is a percentage, set with
+ * -Dgate.tolerance (10 by default), and -Dgate.include picks which benchmarks to run.
+ */
+public class BenchmarkGate {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        boolean update = false;
+        Path baselineFile = Paths.get("benchmark-baseline.properties");
+        for (String arg : args) {
+            if (arg.equals("--update")) {
+                update = true;
+            } else {
+                baselineFile = Paths.get(arg);
+            }
+        }
+        double tolerance = Double.parseDouble(System.getProperty("gate.tolerance", "10")) / 100;
+
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("gate.include", BenchmarkGate.class.getPackageName() + "\\..*Benchmark"))
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        //every result is keyed by its benchmark name and parameters
+        TreeMap<String, Double> scores = new TreeMap<>();
+        for (RunResult result : results) {
+            var params = result.getParams();
+            StringBuilder key = new StringBuilder(params.getBenchmark());
+            for (String param : params.getParamsKeys()) {
+                key.append('[').append(param).append('=').append(params.getParam(param)).append(']');
+            }
+            scores.put(key.toString(), result.getPrimaryResult().getScore());
+        }
+
+        if (update || !Files.exists(baselineFile)) {
+            Properties baseline = new Properties();
+            scores.forEach((key, score) -> baseline.setProperty(key, Double.toString(score)));
+            try (Writer writer = Files.newBufferedWriter(baselineFile)) {
+                baseline.store(writer, "TetrECS benchmark baseline, higher is better");
+            }
+            System.out.println("Saved baseline to " + baselineFile);
+            return;
+        }
+
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile)) {
+            baseline.load(reader);
+        }
+
+        //all benchmarks measure throughput, so a lower score is a regression
+        int regressions = 0;
+        for (var entry : scores.entrySet()) {
+            String saved = baseline.getProperty(entry.getKey());
+            if (saved == null) {
+                System.out.printf("NEW   %s %.3f%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            double before = Double.parseDouble(saved);
+            double change = (entry.getValue() - before) / before;
+            boolean regressed = change < -tolerance;
+            if (regressed) regressions++;
+            System.out.printf("%s %s %.3f -> %.3f (%+.1f%%)%n", regressed ? "SLOWER" : "OK    ", entry.getKey(),
+                    before, entry.getValue(), change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmarks regressed by more than " + tolerance * 100 + "%");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package uk.ac.soton.comp1206.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks line detection and clearing after a placement. The headless GameEngine is measured rather than the Game
+ * adapter, which would also play sounds through the JavaFX media player.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"5", "10", "25", "50"})
+    public int size;
+
+    private GameEngine engine;
+    private Grid grid;
+
+    /**
+     * A horizontal line, which fills the gap left in the top row
+     */
+    private final GamePiece line = GamePiece.createPiece(0, 1);
+
+    @Setup
+    public void setup() {
+        engine = new GameEngine(size, size, 1206);
+        engine.initialisePieces();
+        grid = engine.getGrid();
+    }
+
+    /**
+     * A placement that clears nothing, the most common case
+     */
+    @Benchmark
+    public int afterPieceNoClear() {
+        engine.afterPiece(line, 0, size / 2);
+        return engine.getMultiplier();
+    }
+
+    /**
+     * A placement that completes and clears the top row. The row is filled again first, which is part of the cost.
+     */
+    @Benchmark
+    public int afterPieceClearRow() {
+        for (int x = 3; x < size; x++) {
+            grid.set(x, 0, 1);
+        }
+        grid.playPiece(line, 0, -1);
+        engine.afterPiece(line, 0, -1);
+        return engine.getClearResult().getBlocks();
+    }
+}
@@ -0,0 +1,77 @@
+package uk.ac.soton.comp1206.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks placement checks and placements on grids of different sizes, filled to about 40%
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+
+    /**
+     * Number of precomputed placements cycled through by the benchmarks
+     */
+    private static final int PLACEMENTS = 1024;
+
+    @Param({"5", "10", "25", "50"})
+    public int size;
+
+    private Grid grid;
+    private GamePiece[] pieces;
+    private int[] xs;
+    private int[] ys;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1206);
+        grid = new Grid(size, size);
+
+        //fill the board to about 40% with random blocks
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (random.nextInt(10) < 4) grid.set(x, y, 1 + random.nextInt(GamePiece.PIECES));
+            }
+        }
+
+        pieces = new GamePiece[PLACEMENTS];
+        xs = new int[PLACEMENTS];
+        ys = new int[PLACEMENTS];
+        for (int i = 0; i < PLACEMENTS; i++) {
+            pieces[i] = GamePiece.createPiece(random.nextInt(GamePiece.PIECES), random.nextInt(GamePiece.ROTATIONS));
+            xs[i] = random.nextInt(size) - 1;
+            ys[i] = random.nextInt(size) - 1;
+        }
+    }
+
+    @Benchmark
+    public boolean canPlayPiece() {
+        int i = next++ & (PLACEMENTS - 1);
+        return grid.canPlayPiece(pieces[i], xs[i], ys[i]);
+    }
+
+    /**
+     * Places a piece and takes it off again, so the board stays the same between invocations
+     */
+    @Benchmark
+    public boolean playPiece() {
+        int i = next++ & (PLACEMENTS - 1);
+        GamePiece piece = pieces[i];
+        if (!grid.playPiece(piece, xs[i], ys[i])) return false;
+
+        for (int block = 0; block < piece.getBlockCount(); block++) {
+            grid.set(piece.getBlockX(block) + xs[i], piece.getBlockY(block) + ys[i], 0);
+        }
+        return true;
+    }
+}
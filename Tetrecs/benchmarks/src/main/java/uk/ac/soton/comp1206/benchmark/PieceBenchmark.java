@@ -0,0 +1,47 @@
+package uk.ac.soton.comp1206.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.soton.comp1206.game.GamePiece;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rotating and spawning pieces
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceBenchmark {
+
+    private GamePiece piece;
+    private int next;
+
+    @Setup
+    public void setup() {
+        piece = GamePiece.createPiece(5);
+    }
+
+    @Benchmark
+    public GamePiece rotate() {
+        piece = piece.rotated();
+        return piece;
+    }
+
+    /**
+     * Rotating three times, as the anticlockwise rotation of the challenge scene does
+     */
+    @Benchmark
+    public GamePiece rotateThree() {
+        piece = piece.rotated(3);
+        return piece;
+    }
+
+    @Benchmark
+    public GamePiece createPiece() {
+        next = next == GamePiece.PIECES - 1 ? 0 : next + 1;
+        return GamePiece.createPiece(next);
+    }
+}
@@ -0,0 +1,110 @@
+package uk.ac.soton.comp1206.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.soton.comp1206.game.BoardState;
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks how the game scales from the 5x5 board up to boards hundreds of blocks on a side.
+ *
+ * Placements only look at the lines they touch, using the block counts the grid keeps for every row and column, so
+ * their throughput should barely change with the board size. Restoring a snapshot copies the words and counts of the
+ * board, so it grows with the board but never counts lines again.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+    /**
+     * A grid switched between two snapshots of boards filled to about 60% with random blocks
+     */
+    @State(Scope.Thread)
+    public static class Board {
+
+        @Param({"5", "50", "200", "500"})
+        public int size;
+
+        private Grid grid;
+        private BoardState[] states;
+        private int next;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(1206);
+            grid = new Grid(size, size);
+            states = new BoardState[2];
+            for (int i = 0; i < states.length; i++) {
+                grid.clearGrid();
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        if (random.nextInt(10) < 6) grid.set(x, y, 1 + random.nextInt(GamePiece.PIECES));
+                    }
+                }
+                states[i] = grid.snapshot();
+            }
+        }
+    }
+
+    /**
+     * A game played by clicking random blocks, started again whenever it ends
+     */
+    @State(Scope.Thread)
+    public static class Play {
+
+        /**
+         * Number of failed clicks in a row treated as the timer running out
+         */
+        private static final int PATIENCE = 30;
+
+        @Param({"5", "50", "200", "500"})
+        public int size;
+
+        private Random random;
+        private GameEngine engine;
+        private int failures;
+
+        @Setup
+        public void setup() {
+            random = new Random(1206);
+            newGame();
+        }
+
+        private void newGame() {
+            engine = new GameEngine(size, size, random.nextLong());
+            engine.initialisePieces();
+            failures = 0;
+        }
+    }
+
+    /**
+     * One click, which checks the lines the piece touched and clears the full ones
+     */
+    @Benchmark
+    public int randomClick(Play play) {
+        if (play.engine.blockClicked(play.random.nextInt(play.size), play.random.nextInt(play.size))) {
+            play.failures = 0;
+        } else if (++play.failures == Play.PATIENCE) {
+            play.failures = 0;
+            if (!play.engine.timeout()) play.newGame();
+        }
+        return play.engine.getScore();
+    }
+
+    /**
+     * Restores the other snapshot, taking its words and line counts whole
+     */
+    @Benchmark
+    public long restore(Board board) {
+        board.next ^= 1;
+        board.grid.restore(board.states[board.next]);
+        return board.grid.getHash();
+    }
+}
@@ -0,0 +1,55 @@
+package uk.ac.soton.comp1206.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.soton.comp1206.game.GameEngine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks whole games played by clicking random blocks. Each operation is one click, and a new game is started
+ * whenever the last one ends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+    /**
+     * Number of failed clicks in a row treated as the timer running out
+     */
+    private static final int PATIENCE = 30;
+
+    @Param({"5", "10", "25"})
+    public int size;
+
+    private Random random;
+    private GameEngine engine;
+    private int failures;
+
+    @Setup
+    public void setup() {
+        random = new Random(1206);
+        newGame();
+    }
+
+    private void newGame() {
+        engine = new GameEngine(size, size, random.nextLong());
+        engine.initialisePieces();
+        failures = 0;
+    }
+
+    @Benchmark
+    public int randomClick() {
+        if (engine.blockClicked(random.nextInt(size), random.nextInt(size))) {
+            failures = 0;
+        } else if (++failures == PATIENCE) {
+            failures = 0;
+            if (!engine.timeout()) newGame();
+        }
+        return engine.getScore();
+    }
+}
@@ -0,0 +1,379 @@
+package uk.ac.soton.comp1206.ai;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.ClearResult;
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.MoveGenerator;
+import uk.ac.soton.comp1206.game.PieceCatalogue;
+import uk.ac.soton.comp1206.game.Zobrist;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The AutoPlayer picks moves for a game by searching two placements ahead.
+ *
+ * Every legal placement of the current piece, and of the following piece after a swap, is tried on a copy of the
+ * grid. Each is then followed by the best placement of the other piece, since that piece is the one that has to be
+ * played next either way, and the grid left behind is scored by a BoardHeuristic. The first placements are split
+ * between the threads of a ForkJoinPool, each thread working on its own scratch grids.
+ *
+ * Given a TranspositionTable, the search remembers the grids it has scored and the best replies it has found, keyed
+ * by Zobrist hash. Placing one piece then the other reaches the same grid as the other way round, so much of the
+ * second ply is a repeat. The table must only be shared by players using the same heuristic.
+ *
+ * The same player drives a GameEngine headless with play and playGame, or hands its Decision to a scene.
+ */
+public class AutoPlayer {
+
+    private static final Logger logger = LogManager.getLogger(AutoPlayer.class);
+
+    /**
+     * Bit marking a candidate move as being made with the following piece, after a swap
+     */
+    private static final int SWAP = 1 << 30;
+
+    /**
+     * Number of first placements searched by a task before it stops splitting
+     */
+    private static final int LEAF_SIZE = 8;
+
+    /**
+     * Penalty for leaving a grid the other piece cannot be placed on
+     */
+    private static final double DEAD_END = 1000;
+
+    /**
+     * Weight of the points scored by clearing lines, against the value of the heuristic
+     */
+    private static final double POINTS_WEIGHT = 0.1;
+
+    /**
+     * How the grids left after the search are scored
+     */
+    private final BoardHeuristic heuristic;
+
+    /**
+     * The pool the search runs in
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Results shared between search threads, or null to search without one
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Create a player with the default heuristic, searching in the common pool
+     */
+    public AutoPlayer() {
+        this(new DefaultHeuristic());
+    }
+
+    /**
+     * Create a player searching in the common pool
+     * @param heuristic how grids are scored
+     */
+    public AutoPlayer(BoardHeuristic heuristic) {
+        this(heuristic, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a player
+     * @param heuristic how grids are scored
+     * @param pool the pool the search runs in
+     */
+    public AutoPlayer(BoardHeuristic heuristic, ForkJoinPool pool) {
+        this(heuristic, pool, null);
+    }
+
+    /**
+     * Create a player sharing its results through a transposition table
+     * @param heuristic how grids are scored
+     * @param pool the pool the search runs in
+     * @param table the table results are kept in, or null to search without one
+     */
+    public AutoPlayer(BoardHeuristic heuristic, ForkJoinPool pool, TranspositionTable table) {
+        this.heuristic = heuristic;
+        this.pool = pool;
+        this.table = table;
+    }
+
+    /**
+     * Choose the next move of a game
+     * @param engine the game, which is not modified
+     * @return the chosen move, or null if neither piece can be placed
+     */
+    public Decision decide(GameEngine engine) {
+        return decide(engine.getGrid(), engine.getCurrentPiece(), engine.getFollowingPiece(), engine.getMultiplier());
+    }
+
+    /**
+     * Choose the next move for the given grid and pieces
+     * @param grid the grid, which is not modified and must not change during the search
+     * @param current the current piece
+     * @param following the following piece
+     * @param multiplier the multiplier of the game
+     * @return the chosen move, or null if neither piece can be placed
+     */
+    public Decision decide(Grid grid, GamePiece current, GamePiece following, int multiplier) {
+        MoveGenerator generator = MoveGenerator.of(grid);
+        int[] buffer = generator.newMoveBuffer();
+
+        //candidates are every move of the current piece, then every move of the following piece marked as a swap
+        int currentCount = generator.generate(grid, current, buffer);
+        int[] candidates = new int[2 * buffer.length];
+        System.arraycopy(buffer, 0, candidates, 0, currentCount);
+        int followingCount = generator.generate(grid, following, buffer);
+        for (int i = 0; i < followingCount; i++) {
+            candidates[currentCount + i] = buffer[i] | SWAP;
+        }
+
+        int count = currentCount + followingCount;
+        if (count == 0) return null;
+
+        Search search = new Search(grid, current.getType(), following.getType(), multiplier, candidates, 0, count);
+        return pool.invoke(search);
+    }
+
+    /**
+     * Choose and make the next move of a game
+     * @param engine the game
+     * @return true if a piece was placed, false if neither piece can be placed
+     */
+    public boolean play(GameEngine engine) {
+        Decision decision = decide(engine);
+        if (decision == null) return false;
+
+        if (decision.isSwap()) {
+            engine.swapCurrentPiece();
+        }
+        int rotations = (decision.getRotation() - engine.getCurrentPiece().getRotation()) & 3;
+        if (rotations != 0) {
+            engine.rotatePiece(rotations);
+        }
+        return engine.placePiece(decision.getX(), decision.getY());
+    }
+
+    /**
+     * Play a game until it ends or a number of pieces have been placed. When no piece can be placed the timer is
+     * run out, as it would be for a stuck player
+     * @param engine the game, with its pieces initialised
+     * @param maxMoves the most pieces to place
+     * @return the number of pieces placed
+     */
+    public int playGame(GameEngine engine, int maxMoves) {
+        int moves = 0;
+        while (!engine.isGameOver() && moves < maxMoves) {
+            if (play(engine)) {
+                moves++;
+            } else {
+                engine.timeout();
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Get the heuristic grids are scored with
+     * @return the heuristic
+     */
+    public BoardHeuristic getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * Play games headless and log how they went.
+     *
+     * Usage: AutoPlayer [games] [size] [max moves] [seed]
+     *
+     * Game i is dealt its pieces from seed + i, so a run with the same seed plays the same games.
+     * @param args commandline arguments
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int maxMoves = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        logger.info("Seed: {}", seed);
+
+        AutoPlayer player = new AutoPlayer();
+        long totalScore = 0;
+        long totalMoves = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            GameEngine engine = new GameEngine(size, size, seed + i);
+            engine.initialisePieces();
+            int moves = player.playGame(engine, maxMoves);
+            logger.info("Game {}: score {}, {} pieces placed", i + 1, engine.getScore(), moves);
+            totalScore += engine.getScore();
+            totalMoves += moves;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Played {} games in {}s, average score {}, {} pieces per second", games,
+                String.format("%.2f", seconds), totalScore / Math.max(games, 1),
+                String.format("%.0f", totalMoves / seconds));
+    }
+
+    /**
+     * Searches a range of the candidate first moves, splitting it between tasks until it is small enough
+     */
+    private class Search extends RecursiveTask<Decision> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Grid root;
+        private final int currentType;
+        private final int followingType;
+        private final int multiplier;
+        private final int[] candidates;
+        private final int from;
+        private final int to;
+
+        Search(Grid root, int currentType, int followingType, int multiplier, int[] candidates, int from, int to) {
+            this.root = root;
+            this.currentType = currentType;
+            this.followingType = followingType;
+            this.multiplier = multiplier;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Decision compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                Search left = new Search(root, currentType, followingType, multiplier, candidates, from, middle);
+                Search right = new Search(root, currentType, followingType, multiplier, candidates, middle, to);
+                left.fork();
+                Decision rightBest = right.compute();
+                Decision leftBest = left.join();
+
+                //ties go to the earlier candidate, so the choice does not depend on how the work was split
+                return rightBest.getValue() > leftBest.getValue() ? rightBest : leftBest;
+            }
+            return searchLeaf();
+        }
+
+        /**
+         * Try every candidate of this task on scratch grids
+         * @return the best candidate
+         */
+        private Decision searchLeaf() {
+            MoveGenerator generator = MoveGenerator.of(root);
+            Grid first = root.copy();
+            Grid second = root.copy();
+            ClearResult result = new ClearResult(root.getCols(), root.getRows());
+            int[] replies = generator.newMoveBuffer();
+
+            int bestMove = candidates[from];
+            double bestValue = Double.NEGATIVE_INFINITY;
+
+            for (int i = from; i < to; i++) {
+                int candidate = candidates[i];
+                boolean swap = (candidate & SWAP) != 0;
+                int move = candidate & ~SWAP;
+                int placedType = swap ? followingType : currentType;
+                int otherType = swap ? currentType : followingType;
+
+                first.copyFrom(root);
+                double points = place(first, placedType, move, result, multiplier);
+                int nextMultiplier = result.isEmpty() ? 1 : multiplier + 1;
+
+                double value = points + bestReply(generator, first, second, otherType, nextMultiplier,
+                        replies, result);
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestMove = candidate;
+                }
+            }
+
+            return new Decision((bestMove & SWAP) != 0, bestMove & ~SWAP, bestValue);
+        }
+
+        /**
+         * Find the value of the best placement of the piece that has to be played next
+         * @param generator the move generator
+         * @param grid the grid after the first placement
+         * @param scratch scratch grid for the second placement
+         * @param type piece number
+         * @param multiplier the multiplier after the first placement
+         * @param replies buffer for the moves
+         * @param result where the cleared lines are written
+         * @return the value of the best reply
+         */
+        private double bestReply(MoveGenerator generator, Grid grid, Grid scratch, int type, int multiplier,
+                                 int[] replies, ClearResult result) {
+            long key = 0;
+            if (table != null) {
+                key = grid.getHash() ^ Zobrist.current(type) ^ Zobrist.multiplier(multiplier);
+                long entry = table.probe(key);
+                if (entry != 0 && TranspositionTable.depth(entry) >= 1) return TranspositionTable.value(entry);
+            }
+
+            double best = Double.NEGATIVE_INFINITY;
+            int bestMove = 0;
+            int replyCount = generator.generate(grid, type, replies);
+            for (int r = 0; r < replyCount; r++) {
+                scratch.copyFrom(grid);
+                double value = place(scratch, type, replies[r], result, multiplier) + evaluate(scratch);
+                if (value > best) {
+                    best = value;
+                    bestMove = replies[r];
+                }
+            }
+            if (replyCount == 0) {
+                best = evaluate(grid) - DEAD_END;
+            }
+
+            //values are rounded to what the table holds, so the search chooses the same with or without one
+            best = (float) best;
+            if (table != null) {
+                table.store(key, (float) best, 1, TranspositionTable.EXACT, TranspositionTable.pack(false,
+                        MoveGenerator.moveX(bestMove), MoveGenerator.moveY(bestMove),
+                        MoveGenerator.moveRotation(bestMove)));
+            }
+            return best;
+        }
+
+        /**
+         * Score a grid with the heuristic, through the table if there is one
+         * @param grid the grid
+         * @return the heuristic value
+         */
+        private double evaluate(Grid grid) {
+            if (table == null) return (float) heuristic.evaluate(grid);
+
+            long entry = table.probe(grid.getHash());
+            if (entry != 0) return TranspositionTable.value(entry);
+            float value = (float) heuristic.evaluate(grid);
+            table.store(grid.getHash(), value, 0, TranspositionTable.EXACT, 0);
+            return value;
+        }
+
+        /**
+         * Place a piece on a scratch grid and clear its lines
+         * @param grid the scratch grid
+         * @param type piece number
+         * @param move the packed move, which must be legal
+         * @param result where the cleared lines are written
+         * @param multiplier the multiplier before the move
+         * @return the weighted points the move scores
+         */
+        private double place(Grid grid, int type, int move, ClearResult result, int multiplier) {
+            GamePiece piece = PieceCatalogue.get(type, MoveGenerator.moveRotation(move));
+            int x = MoveGenerator.moveX(move);
+            int y = MoveGenerator.moveY(move);
+            grid.playPiece(piece, x, y);
+            int lines = grid.clearLines(piece, x, y, result);
+            if (lines == 0) return 0;
+
+            //the multiplier goes up before a clear is scored, as it does in the engine
+            return POINTS_WEIGHT * lines * result.getBlocks() * 10 * (multiplier + 1);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package uk.ac.soton.comp1206.ai;
+
+import uk.ac.soton.comp1206.game.Grid;
+
+/**
+ * A BoardHeuristic scores how good a grid is to keep playing on, higher being better.
+ * Heuristics are called from several search threads at once, so they must not keep any state between calls.
+ */
+public interface BoardHeuristic {
+
+    /**
+     * Score a grid
+     * @param grid the grid to score, which must not be modified
+     * @return the score of the grid
+     */
+    double evaluate(Grid grid);
+}
@@ -0,0 +1,74 @@
+package uk.ac.soton.comp1206.ai;
+
+import uk.ac.soton.comp1206.game.MoveGenerator;
+
+/**
+ * A Decision is the move chosen by the AutoPlayer: whether to swap the current and following pieces first, and the
+ * rotation and position to place the piece at.
+ */
+public class Decision {
+
+    private final boolean swap;
+    private final int move;
+    private final double value;
+
+    /**
+     * Create a new decision
+     * @param swap whether to swap the pieces before placing
+     * @param move the placement, packed by the MoveGenerator
+     * @param value the value the search gave this decision
+     */
+    public Decision(boolean swap, int move, double value) {
+        this.swap = swap;
+        this.move = move;
+        this.value = value;
+    }
+
+    /**
+     * @return true if the current and following pieces should be swapped before placing
+     */
+    public boolean isSwap() {
+        return swap;
+    }
+
+    /**
+     * @return the rotation to place the piece in
+     */
+    public int getRotation() {
+        return MoveGenerator.moveRotation(move);
+    }
+
+    /**
+     * @return the x coordinate of the top left of the piece
+     */
+    public int getX() {
+        return MoveGenerator.moveX(move);
+    }
+
+    /**
+     * @return the y coordinate of the top left of the piece
+     */
+    public int getY() {
+        return MoveGenerator.moveY(move);
+    }
+
+    /**
+     * @return the placement, packed by the MoveGenerator
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * @return the value the search gave this decision
+     */
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "Decision [swap = " + swap + ", rotation = " + getRotation() + ", x = " + getX() + ", y = " + getY()
+                + ", value = " + value + "]";
+    }
+}
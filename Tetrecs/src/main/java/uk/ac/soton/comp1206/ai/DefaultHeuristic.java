@@ -0,0 +1,76 @@
+package uk.ac.soton.comp1206.ai;
+
+import uk.ac.soton.comp1206.game.Grid;
+
+/**
+ * The default board heuristic. It rewards empty space and lines that are close to full, and penalises empty blocks
+ * that are walled in, since only the smallest pieces can ever fill them.
+ */
+public class DefaultHeuristic implements BoardHeuristic {
+
+    //weights of the features of the board
+    private final double emptyWeight;
+    private final double lineWeight;
+    private final double enclosedWeight;
+    private final double narrowWeight;
+
+    /**
+     * Create the heuristic with its default weights
+     */
+    public DefaultHeuristic() {
+        this(1.0, 2.0, 6.0, 1.5);
+    }
+
+    /**
+     * Create the heuristic with the given weights
+     * @param emptyWeight reward for every empty block
+     * @param lineWeight reward for filled lines, scaled by how full each row and column is
+     * @param enclosedWeight penalty for every empty block with no empty neighbours
+     * @param narrowWeight penalty for every empty block with a single empty neighbour
+     */
+    public DefaultHeuristic(double emptyWeight, double lineWeight, double enclosedWeight, double narrowWeight) {
+        this.emptyWeight = emptyWeight;
+        this.lineWeight = lineWeight;
+        this.enclosedWeight = enclosedWeight;
+        this.narrowWeight = narrowWeight;
+    }
+
+    @Override
+    public double evaluate(Grid grid) {
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+        int empty = 0;
+        int enclosed = 0;
+        int narrow = 0;
+
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                if (grid.isOccupied(x, y)) continue;
+                empty++;
+
+                //count the empty neighbours, blocks outside the grid count as filled
+                int open = 0;
+                if (x > 0 && !grid.isOccupied(x - 1, y)) open++;
+                if (x < cols - 1 && !grid.isOccupied(x + 1, y)) open++;
+                if (y > 0 && !grid.isOccupied(x, y - 1)) open++;
+                if (y < rows - 1 && !grid.isOccupied(x, y + 1)) open++;
+
+                if (open == 0) enclosed++;
+                else if (open == 1) narrow++;
+            }
+        }
+
+        //squaring the fill of each line favours finishing lines over spreading blocks out
+        double lines = 0;
+        for (int y = 0; y < rows; y++) {
+            double fill = (double) grid.getRowCount(y) / cols;
+            lines += fill * fill;
+        }
+        for (int x = 0; x < cols; x++) {
+            double fill = (double) grid.getColCount(x) / rows;
+            lines += fill * fill;
+        }
+
+        return emptyWeight * empty + lineWeight * lines - enclosedWeight * enclosed - narrowWeight * narrow;
+    }
+}
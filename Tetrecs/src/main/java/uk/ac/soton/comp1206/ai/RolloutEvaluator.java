@@ -0,0 +1,409 @@
+package uk.ac.soton.comp1206.ai;
+
+import uk.ac.soton.comp1206.game.ClearResult;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.MoveGenerator;
+import uk.ac.soton.comp1206.game.PieceCatalogue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The RolloutEvaluator rates placements by playing random games on from them.
+ *
+ * Each candidate placement of the current piece, and of the following piece after a swap, is made on a copy of the
+ * grid. A rollout then plays a number of pieces further: the held piece is known, every piece after it is drawn
+ * uniformly at random as spawnPiece does, and each is placed greedily wherever it clears the most lines, ties broken
+ * at random. The evaluator reports how many lines the rollouts cleared on average and how many of them got through
+ * every piece without getting stuck.
+ *
+ * Rollouts run in rounds on a parallel stream, split across candidates and chunks of rollouts so every core has work
+ * even when few placements are left. On grids of up to 64 blocks a rollout works on the occupancy word alone and
+ * allocates nothing. A time budget stops the rounds early, for hints shown while a game is played; without one every
+ * rollout asked for is played. Rollouts are seeded from their candidate and number, so the same seed gives the same
+ * results however the work is split.
+ */
+public class RolloutEvaluator {
+
+    /**
+     * Bit marking a candidate move as being made with the following piece, after a swap
+     */
+    private static final int SWAP = 1 << 30;
+
+    /**
+     * Most rollouts each task plays per round
+     */
+    private static final int BATCH = 16;
+
+    /**
+     * Step of the random number generator of each rollout
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Number of pieces each rollout places after the candidate
+     */
+    private final int depth;
+
+    /**
+     * Seed the rollouts are drawn from
+     */
+    private final long seed;
+
+    /**
+     * Create an evaluator playing 10 pieces per rollout with a random seed
+     */
+    public RolloutEvaluator() {
+        this(10, System.nanoTime());
+    }
+
+    /**
+     * Create an evaluator
+     * @param depth the number of pieces each rollout places after the candidate
+     * @param seed the seed the rollouts are drawn from
+     */
+    public RolloutEvaluator(int depth, long seed) {
+        this.depth = depth;
+        this.seed = seed;
+    }
+
+    /**
+     * Rate every placement of the current piece, and of the following piece after a swap
+     * @param grid the grid, which is not modified and must not change during the evaluation
+     * @param current the current piece
+     * @param following the following piece
+     * @param rollouts the most rollouts to play per placement
+     * @param budgetMillis the time to stop after in milliseconds, or 0 to play every rollout
+     * @return a result for every placement, placements of the current piece first
+     */
+    public List<RolloutResult> evaluate(Grid grid, GamePiece current, GamePiece following, int rollouts,
+                                        long budgetMillis) {
+        long deadline = budgetMillis > 0 ? System.nanoTime() + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+        MoveGenerator generator = MoveGenerator.of(grid);
+        int[] buffer = generator.newMoveBuffer();
+
+        //candidates are every move of the current piece, then every move of the following piece marked as a swap
+        int currentCount = generator.generate(grid, current, buffer);
+        int[] candidates = new int[2 * buffer.length];
+        System.arraycopy(buffer, 0, candidates, 0, currentCount);
+        int followingCount = generator.generate(grid, following, buffer);
+        for (int i = 0; i < followingCount; i++) {
+            candidates[currentCount + i] = buffer[i] | SWAP;
+        }
+        int count = currentCount + followingCount;
+
+        //each candidate is split into chunks so there are a few tasks for every core
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunks = count == 0 ? 1 : Math.max(1, (4 * parallelism + count - 1) / count);
+        int tasks = count * chunks;
+
+        //every task only writes its own slots, and the stream finishing publishes them to this thread
+        long[] taskLines = new long[tasks];
+        int[] taskSurvived = new int[tasks];
+        int[] taskPlayed = new int[tasks];
+
+        //rounds start small and grow, so a short budget still covers every candidate
+        int played = 0;
+        int round = 1;
+        while (played < rollouts && System.nanoTime() < deadline) {
+            int start = played;
+            int perChunk = Math.min(round, (rollouts - played + chunks - 1) / chunks);
+            round = Math.min(2 * round, BATCH);
+            IntStream.range(0, tasks).parallel().forEach(task -> {
+                int candidate = task / chunks;
+                int first = start + (task % chunks) * perChunk;
+                int last = Math.min(first + perChunk, rollouts);
+                Rollout rollout = new Rollout(grid, current.getType(), following.getType());
+                for (int r = first; r < last && System.nanoTime() < deadline; r++) {
+                    int lines = rollout.play(candidates[candidate], mix(seed + candidate * GOLDEN_GAMMA) + r);
+                    if (lines >= 0) {
+                        taskLines[task] += lines;
+                        taskSurvived[task]++;
+                    } else {
+                        taskLines[task] += -lines - 1;
+                    }
+                    taskPlayed[task]++;
+                }
+            });
+            played = Math.min(rollouts, start + chunks * perChunk);
+        }
+
+        List<RolloutResult> results = new ArrayList<>(count);
+        for (int candidate = 0; candidate < count; candidate++) {
+            long lines = 0;
+            int survived = 0;
+            int runs = 0;
+            for (int task = candidate * chunks; task < (candidate + 1) * chunks; task++) {
+                lines += taskLines[task];
+                survived += taskSurvived[task];
+                runs += taskPlayed[task];
+            }
+            int move = candidates[candidate];
+            results.add(new RolloutResult((move & SWAP) != 0, move & ~SWAP, runs, lines, survived, depth));
+        }
+        return results;
+    }
+
+    /**
+     * Pick the best of a set of results
+     * @param results the results
+     * @return the result with the highest value, or null if no rollouts were played
+     */
+    public static RolloutResult best(List<RolloutResult> results) {
+        RolloutResult best = null;
+        for (RolloutResult result : results) {
+            //placements the budget ran out before reaching have nothing to go on
+            if (result.getRollouts() == 0) continue;
+            if (best == null || result.getValue() > best.getValue()) best = result;
+        }
+        return best;
+    }
+
+    /**
+     * Get the number of pieces each rollout places after the candidate
+     * @return the depth of the rollouts
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Scramble a number into a well mixed random number, the finaliser of SplitMix64
+     * @param z the number
+     * @return the mixed number
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Plays rollouts from the candidates of one evaluation, holding the scratch state of a single task
+     */
+    private class Rollout {
+
+        private final Grid root;
+        private final int currentType;
+        private final int followingType;
+        private final MoveGenerator generator;
+
+        //full line masks over the occupancy word, for grids of up to 64 blocks
+        private final long[] lineMasks;
+
+        //scratch state for larger grids
+        private final Grid scratch;
+        private final ClearResult result;
+        private final int[] moves;
+
+        //the random number generator of the rollout being played
+        private long state;
+
+        Rollout(Grid root, int currentType, int followingType) {
+            this.root = root;
+            this.currentType = currentType;
+            this.followingType = followingType;
+            this.generator = MoveGenerator.of(root);
+
+            int cols = root.getCols();
+            int rows = root.getRows();
+            if (generator.isBitboard()) {
+                lineMasks = new long[cols + rows];
+                for (int y = 0; y < rows; y++) {
+                    lineMasks[y] = ((1L << cols) - 1) << (y * cols);
+                }
+                for (int x = 0; x < cols; x++) {
+                    long mask = 0;
+                    for (int y = 0; y < rows; y++) mask |= 1L << (x + y * cols);
+                    lineMasks[rows + x] = mask;
+                }
+                scratch = null;
+                result = null;
+                moves = null;
+            } else {
+                lineMasks = null;
+                scratch = root.copy();
+                result = new ClearResult(cols, rows);
+                moves = generator.newMoveBuffer();
+            }
+        }
+
+        /**
+         * Play one rollout
+         * @param candidate the candidate move, marked if it is made after a swap
+         * @param seed the seed of this rollout
+         * @return the lines cleared, or minus one less than the lines cleared if the rollout got stuck
+         */
+        int play(int candidate, long seed) {
+            state = seed;
+            boolean swap = (candidate & SWAP) != 0;
+            int placed = swap ? followingType : currentType;
+            int held = swap ? currentType : followingType;
+            int move = candidate & ~SWAP;
+            return lineMasks != null ? playBitboard(placed, held, move) : playGrid(placed, held, move);
+        }
+
+        /**
+         * Play a rollout on the occupancy word of a small grid
+         */
+        private int playBitboard(int placed, int held, int move) {
+            long[] masks = generator.getPlacementMasks(placed);
+            int[] packed = generator.getPlacementMoves(placed);
+            long occupancy = root.getOccupancyWord(0);
+            for (int i = 0; i < packed.length; i++) {
+                if (packed[i] == move) {
+                    occupancy |= masks[i];
+                    break;
+                }
+            }
+            long cleared = clearedMask(occupancy);
+            int lines = countLines(occupancy);
+            occupancy &= ~cleared;
+
+            //the held piece has to go next, the piece after it is random
+            int next = randomPiece();
+            for (int step = 0; step < depth; step++) {
+                long best = 0;
+                int bestLines = -1;
+                int bestType = -1;
+                int ties = 0;
+                for (int pick = 0; pick < 2; pick++) {
+                    int type = pick == 0 ? held : next;
+                    for (long mask : generator.getPlacementMasks(type)) {
+                        if ((occupancy & mask) != 0) continue;
+                        int clears = countLines(occupancy | mask);
+                        if (clears > bestLines) {
+                            bestLines = clears;
+                            best = mask;
+                            bestType = pick;
+                            ties = 1;
+                        } else if (clears == bestLines && randomInt(++ties) == 0) {
+                            best = mask;
+                            bestType = pick;
+                        }
+                    }
+                }
+                if (bestLines < 0) return -lines - 1;
+
+                occupancy |= best;
+                occupancy &= ~clearedMask(occupancy);
+                lines += bestLines;
+
+                //whichever piece was not placed is held for the next step
+                if (bestType == 0) held = next;
+                next = randomPiece();
+            }
+            return lines;
+        }
+
+        /**
+         * Play a rollout on a scratch copy of a large grid
+         */
+        private int playGrid(int placed, int held, int move) {
+            scratch.copyFrom(root);
+            int lines = place(placed, move);
+
+            int next = randomPiece();
+            for (int step = 0; step < depth; step++) {
+                int best = 0;
+                int bestLines = -1;
+                int bestType = -1;
+                int ties = 0;
+                for (int pick = 0; pick < 2; pick++) {
+                    int type = pick == 0 ? held : next;
+                    int count = generator.generate(scratch, type, moves);
+                    for (int i = 0; i < count; i++) {
+                        GamePiece piece = PieceCatalogue.get(type, MoveGenerator.moveRotation(moves[i]));
+                        int clears = completedLines(piece, MoveGenerator.moveX(moves[i]),
+                                MoveGenerator.moveY(moves[i]));
+                        if (clears > bestLines) {
+                            bestLines = clears;
+                            best = moves[i];
+                            bestType = pick;
+                            ties = 1;
+                        } else if (clears == bestLines && randomInt(++ties) == 0) {
+                            best = moves[i];
+                            bestType = pick;
+                        }
+                    }
+                }
+                if (bestLines < 0) return -lines - 1;
+
+                lines += place(bestType == 0 ? held : next, best);
+                if (bestType == 0) held = next;
+                next = randomPiece();
+            }
+            return lines;
+        }
+
+        /**
+         * Place a piece on the scratch grid and clear its lines
+         * @return the lines cleared
+         */
+        private int place(int type, int move) {
+            GamePiece piece = PieceCatalogue.get(type, MoveGenerator.moveRotation(move));
+            int x = MoveGenerator.moveX(move);
+            int y = MoveGenerator.moveY(move);
+            scratch.playPiece(piece, x, y);
+            return scratch.clearLines(piece, x, y, result);
+        }
+
+        /**
+         * Count the lines of the scratch grid a placement would fill, from the row and column counts
+         */
+        private int completedLines(GamePiece piece, int x, int y) {
+            int lines = 0;
+            for (int i = 0; i < 3; i++) {
+                int rowAdded = 0;
+                int colAdded = 0;
+                for (int b = 0; b < piece.getBlockCount(); b++) {
+                    if (piece.getBlockY(b) == i) rowAdded++;
+                    if (piece.getBlockX(b) == i) colAdded++;
+                }
+                if (rowAdded > 0 && scratch.getRowCount(y + i) + rowAdded == scratch.getCols()) lines++;
+                if (colAdded > 0 && scratch.getColCount(x + i) + colAdded == scratch.getRows()) lines++;
+            }
+            return lines;
+        }
+
+        /**
+         * Count the full lines of an occupancy word
+         */
+        private int countLines(long occupancy) {
+            int lines = 0;
+            for (long mask : lineMasks) {
+                if ((occupancy & mask) == mask) lines++;
+            }
+            return lines;
+        }
+
+        /**
+         * Get the blocks of every full line of an occupancy word
+         */
+        private long clearedMask(long occupancy) {
+            long cleared = 0;
+            for (long mask : lineMasks) {
+                if ((occupancy & mask) == mask) cleared |= mask;
+            }
+            return cleared;
+        }
+
+        /**
+         * Draw a random piece number, as spawnPiece does
+         */
+        private int randomPiece() {
+            return randomInt(GamePiece.PIECES);
+        }
+
+        /**
+         * Draw a random number from 0 up to a bound
+         */
+        private int randomInt(int bound) {
+            state += GOLDEN_GAMMA;
+            return (int) ((mix(state) >>> 33) % bound);
+        }
+    }
+}
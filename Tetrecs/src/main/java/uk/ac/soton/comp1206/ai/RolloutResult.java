@@ -0,0 +1,117 @@
+package uk.ac.soton.comp1206.ai;
+
+import uk.ac.soton.comp1206.game.MoveGenerator;
+
+/**
+ * A RolloutResult holds what the RolloutEvaluator found out about one candidate placement: how many random games were
+ * played on from it, how many lines they cleared and how many of them survived.
+ */
+public class RolloutResult {
+
+    private final boolean swap;
+    private final int move;
+    private final int rollouts;
+    private final long lines;
+    private final int survived;
+    private final int depth;
+
+    /**
+     * Create a new result
+     * @param swap whether the placement is made after swapping the pieces
+     * @param move the placement, packed by the MoveGenerator
+     * @param rollouts the number of rollouts played
+     * @param lines the total lines cleared over every rollout, including the placement itself
+     * @param survived the number of rollouts that placed every piece
+     * @param depth the number of pieces each rollout places after the candidate
+     */
+    public RolloutResult(boolean swap, int move, int rollouts, long lines, int survived, int depth) {
+        this.swap = swap;
+        this.move = move;
+        this.rollouts = rollouts;
+        this.lines = lines;
+        this.survived = survived;
+        this.depth = depth;
+    }
+
+    /**
+     * @return true if the current and following pieces are swapped before placing
+     */
+    public boolean isSwap() {
+        return swap;
+    }
+
+    /**
+     * @return the placement, packed by the MoveGenerator
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * @return the rotation the piece is placed in
+     */
+    public int getRotation() {
+        return MoveGenerator.moveRotation(move);
+    }
+
+    /**
+     * @return the x coordinate of the top left of the piece
+     */
+    public int getX() {
+        return MoveGenerator.moveX(move);
+    }
+
+    /**
+     * @return the y coordinate of the top left of the piece
+     */
+    public int getY() {
+        return MoveGenerator.moveY(move);
+    }
+
+    /**
+     * @return the number of rollouts played from this placement
+     */
+    public int getRollouts() {
+        return rollouts;
+    }
+
+    /**
+     * Get the mean number of lines cleared by the placement and the rollouts after it
+     * @return expected lines cleared, 0 if no rollouts were played
+     */
+    public double getExpectedLines() {
+        return rollouts == 0 ? 0 : (double) lines / rollouts;
+    }
+
+    /**
+     * Get the fraction of rollouts that placed every piece without getting stuck
+     * @return expected survival, from 0 to 1
+     */
+    public double getSurvival() {
+        return rollouts == 0 ? 0 : (double) survived / rollouts;
+    }
+
+    /**
+     * Get a single value to rank placements by. Getting stuck loses every line the rest of the rollout could have
+     * cleared, so survival is weighted by the depth of the rollouts
+     * @return the value of this placement, higher being better
+     */
+    public double getValue() {
+        return getExpectedLines() + depth * getSurvival();
+    }
+
+    /**
+     * Turn this result into a decision the AutoPlayer and scenes can play
+     * @return the decision
+     */
+    public Decision toDecision() {
+        return new Decision(swap, move, getValue());
+    }
+
+    @Override
+    public String toString() {
+        return "RolloutResult [swap = " + swap + ", rotation = " + getRotation() + ", x = " + getX() + ", y = "
+                + getY() + ", rollouts = " + rollouts + ", lines = " + getExpectedLines() + ", survival = "
+                + getSurvival() + "]";
+    }
+}
@@ -0,0 +1,179 @@
+package uk.ac.soton.comp1206.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size table of search results keyed by Zobrist hash, shared by every search thread without locks.
+ *
+ * Each slot is two longs: the entry packed into one long, and the hash XORed with the entry in the other. A reader
+ * recomputes the hash from both and only trusts the entry if it matches, so a slot torn by two threads writing at
+ * once reads as a miss instead of as another position's result.
+ *
+ * When two positions share a slot, the result searched deeper is kept. A result for the same position always
+ * replaces the old one.
+ */
+public class TranspositionTable {
+
+    /**
+     * The value is exact
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * The value is at least the stored value
+     */
+    public static final int LOWER = 1;
+
+    /**
+     * The value is at most the stored value
+     */
+    public static final int UPPER = 2;
+
+    //layout of a packed entry: value, depth, bound, move
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final long DEPTH_MASK = 0xFF;
+    private static final long BOUND_MASK = 0x3;
+
+    /**
+     * Bit set in every stored entry, so an empty slot is never mistaken for one
+     */
+    private static final long USED = 1L << 63;
+
+    /**
+     * Two longs per slot, the checked hash then the entry
+     */
+    private final AtomicLongArray slots;
+
+    /**
+     * Mask turning a hash into a slot number
+     */
+    private final int mask;
+
+    /**
+     * Create a table holding at least the given number of entries, rounded up to a power of two
+     * @param entries the number of entries
+     */
+    public TranspositionTable(int entries) {
+        if (entries <= 0 || entries > 1 << 29) {
+            throw new IllegalArgumentException("Invalid table size: " + entries);
+        }
+        int size = Integer.highestOneBit(entries - 1) << 1;
+        if (entries == 1) size = 1;
+        this.mask = size - 1;
+        this.slots = new AtomicLongArray(2 * size);
+    }
+
+    /**
+     * Look up the entry for a position
+     * @param hash the hash of the position
+     * @return the packed entry, or 0 if the table holds nothing for the position
+     */
+    public long probe(long hash) {
+        int slot = slot(hash);
+        long entry = slots.get(slot + 1);
+        long check = slots.get(slot);
+        if (entry == 0 || (check ^ entry) != hash) return 0;
+        return entry;
+    }
+
+    /**
+     * Store the result of searching a position, unless its slot holds a deeper result for another position
+     * @param hash the hash of the position
+     * @param value the value found
+     * @param depth the depth searched, from 0 to 255
+     * @param bound whether the value is EXACT, a LOWER bound or an UPPER bound
+     * @param move the best move found, packed by pack, or 0
+     */
+    public void store(long hash, float value, int depth, int bound, int move) {
+        int slot = slot(hash);
+        long old = slots.get(slot + 1);
+        if (old != 0 && (slots.get(slot) ^ old) != hash && depth(old) > depth) return;
+
+        long entry = USED
+                | ((long) move << MOVE_SHIFT)
+                | ((bound & BOUND_MASK) << BOUND_SHIFT)
+                | ((depth & DEPTH_MASK) << DEPTH_SHIFT)
+                | (Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+
+        //the entry goes in last, so a reader seeing it with the old check word reads a miss
+        slots.set(slot, hash ^ entry);
+        slots.set(slot + 1, entry);
+    }
+
+    /**
+     * Empty the table
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0);
+        }
+    }
+
+    /**
+     * Get the number of entries the table holds
+     * @return the capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Get the value of a packed entry
+     * @param entry the entry
+     * @return the value
+     */
+    public static float value(long entry) {
+        return Float.intBitsToFloat((int) entry);
+    }
+
+    /**
+     * Get the depth of a packed entry
+     * @param entry the entry
+     * @return the depth searched
+     */
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    /**
+     * Get the bound of a packed entry
+     * @param entry the entry
+     * @return EXACT, LOWER or UPPER
+     */
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+
+    /**
+     * Get the best move of a packed entry
+     * @param entry the entry
+     * @return the move, packed by pack
+     */
+    public static int move(long entry) {
+        return (int) ((entry & ~USED) >>> MOVE_SHIFT);
+    }
+
+    /**
+     * Pack a move into the 21 bits an entry has for it
+     * @param swap whether the pieces are swapped first
+     * @param x x coordinate of the piece, from -2
+     * @param y y coordinate of the piece, from -2
+     * @param rotation rotation of the piece
+     * @return the packed move
+     */
+    public static int pack(boolean swap, int x, int y, int rotation) {
+        return ((x + 2) & 0xFF) | (((y + 2) & 0xFF) << 8) | ((rotation & 3) << 16) | (swap ? 1 << 18 : 0);
+    }
+
+    /**
+     * Get the first of the two longs of the slot for a hash
+     * @param hash the hash
+     * @return index into the slot array
+     */
+    private int slot(long hash) {
+        //the low bits of the hash are mixed with the high bits, which the slot number would otherwise ignore
+        return (int) ((hash ^ (hash >>> 32)) & mask) << 1;
+    }
+}
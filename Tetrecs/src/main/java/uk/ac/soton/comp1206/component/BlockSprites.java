@@ -0,0 +1,124 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * BlockSprites holds the look of every kind of block as a pre-rendered image, so painting a block is a single
+ * drawImage rather than a fill, a rounded rectangle, two lines and a border.
+ *
+ * A sprite is rendered the first time it is needed for each colour, block size, centre mark and hover, at the size the
+ * block takes up on screen. When the GamePane scales the game to a new window size the sprites are dropped, and the
+ * generation counts up so boards know to paint their blocks again.
+ */
+public final class BlockSprites {
+
+    /**
+     * Number of sprites for each block size: every colour, with and without the centre mark and hover
+     */
+    private static final int VARIANTS = GameBlock.COLOURS.length << 2;
+
+    /**
+     * The sprites rendered so far for each block size
+     */
+    private static final Map<Size, Image[]> SPRITES = new HashMap<>();
+
+    /**
+     * How much the blocks are scaled on screen
+     */
+    private static double scale = 1;
+
+    /**
+     * Counts up every time the sprites are dropped
+     */
+    private static final SimpleIntegerProperty generation = new SimpleIntegerProperty(0);
+
+    private BlockSprites() {
+    }
+
+    /**
+     * Get the sprite of a block, rendering it if it is the first time it is needed
+     * @param width width of the block
+     * @param height height of the block
+     * @param value the value of the block, 0 being empty
+     * @param centre true if the block is marked as the centre of a piece
+     * @param hover true if the block is hovered
+     * @return the sprite, which is drawn at the width and height of the block
+     */
+    public static Image get(double width, double height, int value, boolean centre, boolean hover) {
+        Image[] sprites = SPRITES.computeIfAbsent(new Size(width, height), size -> new Image[VARIANTS]);
+        int variant = value << 2 | (centre ? 2 : 0) | (hover ? 1 : 0);
+        Image sprite = sprites[variant];
+        if (sprite == null) {
+            sprite = render(width, height, value, centre, hover);
+            sprites[variant] = sprite;
+        }
+        return sprite;
+    }
+
+    /**
+     * Render a sprite at the size the block takes up on screen
+     */
+    private static Image render(double width, double height, int value, boolean centre, boolean hover) {
+        Canvas canvas = new Canvas(width, height);
+        GameBlock.drawShapes(canvas.getGraphicsContext2D(), 0, 0, width, height, value, centre, hover);
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(scale, scale));
+        return canvas.snapshot(parameters, null);
+    }
+
+    /**
+     * Set how much the blocks are scaled on screen, dropping every sprite if it changed
+     * @param scale the scale
+     */
+    public static void setScale(double scale) {
+        if (scale <= 0 || scale == BlockSprites.scale) return;
+        BlockSprites.scale = scale;
+        SPRITES.clear();
+        generation.set(generation.get() + 1);
+    }
+
+    /**
+     * Get the number of times the sprites have been dropped, to repaint blocks drawn with the old ones
+     * @return the generation property
+     */
+    public static ReadOnlyIntegerProperty generationProperty() {
+        return generation;
+    }
+
+    /**
+     * The size of a block, as a key of the sprites
+     */
+    private static final class Size {
+        private final double width;
+        private final double height;
+
+        private Size(double width, double height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Size)) return false;
+            Size size = (Size) other;
+            return width == size.width && height == size.height;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height);
+        }
+    }
+}
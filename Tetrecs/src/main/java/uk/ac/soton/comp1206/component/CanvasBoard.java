@@ -0,0 +1,210 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.Grid;
+
+/**
+ * A CanvasBoard is a GameBoard which draws every block onto a single Canvas, instead of making a GameBlock canvas
+ * for each one, so a large board is one node and one texture however many blocks it has.
+ *
+ * Blocks are drawn exactly as GameBlocks draw themselves, and the board listens to the grid directly to redraw the
+ * blocks that change. Mouse positions are mapped to blocks, and the click listeners are still passed a GameBlock: a
+ * lightweight handle on the block, made the first time it is asked for, which paints, hovers and fades through the
+ * board.
+ */
+public class CanvasBoard extends GameBoard {
+
+    private static final Logger logger = LogManager.getLogger(CanvasBoard.class);
+
+    /**
+     * The canvas every block is drawn on
+     */
+    private Canvas canvas;
+
+    /**
+     * Size of a block on the canvas
+     */
+    private double blockWidth;
+    private double blockHeight;
+
+    /**
+     * Index of the hovered block and of the block marked as the centre, x + y * cols, or -1 if none
+     */
+    private int hoverIndex;
+    private int centreIndex;
+
+    /**
+     * Create a new CanvasBoard, based off a given grid, with a visual width and height.
+     *
+     * @param grid   linked grid
+     * @param width  the visual width
+     * @param height the visual height
+     */
+    public CanvasBoard(Grid grid, double width, double height) {
+        super(grid, width, height);
+    }
+
+    /**
+     * Create a new CanvasBoard with it's own internal grid
+     *
+     * @param cols   number of columns for internal grid
+     * @param rows   number of rows for internal grid
+     * @param width  the visual width
+     * @param height the visual height
+     */
+    public CanvasBoard(int cols, int rows, double width, double height) {
+        super(cols, rows, width, height);
+    }
+
+    /**
+     * Build the board as one canvas. This is called by the GameBoard constructor, so it sets up every field itself
+     */
+    @Override
+    protected void build() {
+        logger.info("Building canvas grid: {} x {}", cols, rows);
+
+        setMaxWidth(width);
+        setMaxHeight(height);
+
+        canvas = new Canvas(width, height);
+        blockWidth = width / cols;
+        blockHeight = height / rows;
+        hoverIndex = -1;
+        centreIndex = -1;
+        blocks = new GameBlock[cols][rows];
+        repaints = new RepaintScheduler(cols, rows, this::paintBlock);
+        fades = new FadeAnimator(cols, rows, this::paintBlock);
+        watchSprites();
+        add(canvas, 0, 0);
+
+        canvas.setOnMouseMoved(this::mouseMoved);
+        canvas.setOnMouseExited(e -> setHover(-1));
+        canvas.setOnMouseClicked(this::mouseClicked);
+
+        //the board follows every change made to the grid, drawing each changed block once on the next pulse
+        grid.addListener((x, y, value) -> repaints.request(x, y));
+
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                paintBlock(x, y);
+            }
+        }
+    }
+
+    /**
+     * Get a handle on a block of the board, made the first time it is asked for
+     *
+     * @param x column
+     * @param y row
+     * @return the handle passed to the click listeners for this block
+     */
+    @Override
+    public GameBlock getBlock(int x, int y) {
+        GameBlock block = blocks[x][y];
+        if (block == null) {
+            block = new GameBlock(this, x, y);
+            blocks[x][y] = block;
+        }
+        return block;
+    }
+
+    /**
+     * Get the index of the block under a point of the canvas
+     * @return x + y * cols, or -1 if the point is outside the board
+     */
+    private int blockAt(double px, double py) {
+        int x = (int) (px / blockWidth);
+        int y = (int) (py / blockHeight);
+        if (px < 0 || py < 0 || x >= cols || y >= rows) return -1;
+        return x + y * cols;
+    }
+
+    private void mouseMoved(MouseEvent e) {
+        setHover(blockAt(e.getX(), e.getY()));
+    }
+
+    private void mouseClicked(MouseEvent e) {
+        int index = blockAt(e.getX(), e.getY());
+        if (index < 0) return;
+
+        GameBlock block = getBlock(index % cols, index / cols);
+        //if the left click is pressed then the corresponding method gets activated
+        if (e.getButton().equals(MouseButton.PRIMARY)) {
+            leftClick(block);
+        }
+        //if right click then right click method is called on the block
+        else if (e.getButton().equals(MouseButton.SECONDARY)) {
+            rightClick(block);
+        }
+    }
+
+    /**
+     * Hover a block, as moving the keyboard cursor onto it does
+     * @param x column
+     * @param y row
+     */
+    public void hover(int x, int y) {
+        setHover(x + y * cols);
+    }
+
+    /**
+     * Move the hover to another block, redrawing the block it left and the block it moved to
+     */
+    private void setHover(int index) {
+        if (index == hoverIndex) return;
+        int previous = hoverIndex;
+        hoverIndex = index;
+        if (previous >= 0) repaints.request(previous % cols, previous / cols);
+        if (index >= 0) repaints.request(index % cols, index / cols);
+    }
+
+    /**
+     * Mark or unmark a block as the centre of the piece shown
+     * @param x column
+     * @param y row
+     * @param centre true to mark the block
+     */
+    public void setCentre(int x, int y, boolean centre) {
+        int index = x + y * cols;
+        int previous = centreIndex;
+        if (centre) {
+            centreIndex = index;
+        } else if (centreIndex == index) {
+            centreIndex = -1;
+        }
+        if (previous >= 0 && previous != centreIndex) repaints.request(previous % cols, previous / cols);
+        repaints.request(x, y);
+    }
+
+    /**
+     * Draw a single block onto the canvas
+     * @param x column
+     * @param y row
+     */
+    public void paintBlock(int x, int y) {
+        int index = x + y * cols;
+        double px = x * blockWidth;
+        double py = y * blockHeight;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+
+        //a block only draws inside its own square, as if it was its own canvas
+        gc.save();
+        gc.beginPath();
+        gc.rect(px, py, blockWidth, blockHeight);
+        gc.clip();
+
+        double opacity = fades.getOpacity(x, y);
+        if (opacity >= 0) {
+            GameBlock.paintFade(gc, px, py, blockWidth, blockHeight, opacity);
+        } else {
+            GameBlock.draw(gc, px, py, blockWidth, blockHeight, grid.get(x, y), index == centreIndex,
+                index == hoverIndex);
+        }
+        gc.restore();
+    }
+}
@@ -0,0 +1,136 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.Arrays;
+
+/**
+ * The FadeAnimator runs the fading out of every block of a board cleared in a line, from a single AnimationTimer.
+ *
+ * The fading blocks are held in primitive arrays with the time each started, so the opacity of a block follows the
+ * time passed rather than the number of frames drawn, and a fade takes the same time at any frame rate. Every frame
+ * the fading blocks are painted again, and the timer is stopped as soon as none are left.
+ */
+public class FadeAnimator {
+
+    /**
+     * How long a block takes to fade out, about as long as the 0.03 per frame steps took at 60 frames a second
+     */
+    public static final long FADE_NANOS = 550_000_000L;
+
+    private final int cols;
+
+    /**
+     * Paints a block, which reads its opacity from getOpacity
+     */
+    private final RepaintScheduler.BlockPainter painter;
+
+    /**
+     * The fading blocks, x + y * cols, and the time each started fading, or -1 until its first frame
+     */
+    private int[] cells = new int[16];
+    private long[] starts = new long[16];
+    private int fading = 0;
+
+    /**
+     * For each block, one more than its position in the fading arrays, or 0 if it is not fading
+     */
+    private final int[] slots;
+
+    /**
+     * The time of the frame being drawn
+     */
+    private long frame;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            step(now);
+        }
+    };
+
+    /**
+     * Create the animator of a board
+     * @param cols number of columns of the board
+     * @param rows number of rows of the board
+     * @param painter paints a block of the board, fading or not
+     */
+    public FadeAnimator(int cols, int rows, RepaintScheduler.BlockPainter painter) {
+        this.cols = cols;
+        this.slots = new int[cols * rows];
+        this.painter = painter;
+    }
+
+    /**
+     * Start fading out a block, or start again if it is already fading
+     * @param x column
+     * @param y row
+     */
+    public void fadeOut(int x, int y) {
+        int index = x + y * cols;
+        int slot = slots[index] - 1;
+        if (slot < 0) {
+            if (fading == cells.length) {
+                cells = Arrays.copyOf(cells, fading * 2);
+                starts = Arrays.copyOf(starts, fading * 2);
+            }
+            slot = fading++;
+            cells[slot] = index;
+            slots[index] = slot + 1;
+        }
+        starts[slot] = -1;
+
+        //the timer only runs while something is fading
+        if (fading == 1) timer.start();
+        painter.paint(x, y);
+    }
+
+    /**
+     * Get how far a block has faded
+     * @param x column
+     * @param y row
+     * @return the opacity left, from 1 down to 0, or -1 if the block is not fading
+     */
+    public double getOpacity(int x, int y) {
+        int slot = slots[x + y * cols] - 1;
+        if (slot < 0) return -1;
+        long start = starts[slot];
+        if (start < 0) return 1;
+        return Math.max(0, 1 - (double) (frame - start) / FADE_NANOS);
+    }
+
+    /**
+     * Checks whether any block is fading
+     * @return true while the animator is running
+     */
+    public boolean isRunning() {
+        return fading > 0;
+    }
+
+    /**
+     * Move every fade on to the time of a frame and paint the fading blocks
+     */
+    private void step(long now) {
+        frame = now;
+        for (int i = 0; i < fading; ) {
+            int index = cells[i];
+            if (starts[i] < 0) starts[i] = now;
+
+            if (now - starts[i] >= FADE_NANOS) {
+                //the last fading block takes the place of the finished one, which is then painted as it is
+                fading--;
+                slots[index] = 0;
+                if (i < fading) {
+                    cells[i] = cells[fading];
+                    starts[i] = starts[fading];
+                    slots[cells[i]] = i + 1;
+                }
+                painter.paint(index % cols, index / cols);
+                continue;
+            }
+            painter.paint(index % cols, index / cols);
+            i++;
+        }
+        if (fading == 0) timer.stop();
+    }
+}
@@ -1,6 +1,5 @@
 package uk.ac.soton.comp1206.component;
 
-import javafx.animation.AnimationTimer;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ObservableValue;
@@ -29,8 +28,6 @@ public class GameBlock extends Canvas {
     //boolean value that determines if a block should be hovered
     private boolean hover;
 
-    private AnimationTimer timer;
-
     /**
      * The set of colours for different pieces
      */
@@ -55,6 +52,11 @@ public class GameBlock extends Canvas {
 
     private final GameBoard gameBoard;
 
+    /**
+     * The board drawing this block, if the block is only a handle on a cell of a CanvasBoard
+     */
+    private final CanvasBoard canvasBoard;
+
     private final double width;
     private final double height;
 
@@ -83,6 +85,7 @@ public class GameBlock extends Canvas {
      */
     public GameBlock(GameBoard gameBoard, int x, int y, double width, double height) {
         this.gameBoard = gameBoard;
+        this.canvasBoard = null;
         this.width = width;
         this.height = height;
         this.x = x;
@@ -95,13 +98,13 @@ public class GameBlock extends Canvas {
         //When the mouse is over the block, hover
         setOnMouseEntered((e) -> {
             hover = true;
-            paint();
+            gameBoard.requestPaint(x, y);
         });
 
         //When the mouse leaves, no longer hover
         setOnMouseExited((e) -> {
             hover = false;
-            paint();
+            gameBoard.requestPaint(x, y);
         });
 
         //Do an initial paint
@@ -111,6 +114,22 @@ public class GameBlock extends Canvas {
         value.addListener(this::updateValue);
     }
 
+    /**
+     * Create a handle on a cell of a CanvasBoard, which is never shown itself but is passed to the click listeners.
+     * Painting, hovering and fading the handle is done by the board
+     * @param canvasBoard the board drawing the cell
+     * @param x the column of the cell
+     * @param y the row of the cell
+     */
+    GameBlock(CanvasBoard canvasBoard, int x, int y) {
+        this.gameBoard = canvasBoard;
+        this.canvasBoard = canvasBoard;
+        this.width = 0;
+        this.height = 0;
+        this.x = x;
+        this.y = y;
+    }
+
     /**
      * When the value of this block is updated,
      * @param observable what was updated
@@ -118,81 +137,115 @@ public class GameBlock extends Canvas {
      * @param newValue the new value
      */
     private void updateValue(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-        paint();
+        //painted on the next pulse, once however many times the value changes before it
+        gameBoard.requestPaint(x, y);
     }
 
     /**
      * Handle painting of the block canvas
      */
     public void paint() {
+        if (canvasBoard != null) {
+            canvasBoard.paintBlock(x, y);
+            return;
+        }
+        //a fading block is painted by the fade until it has faded
+        double opacity = gameBoard.fades.getOpacity(x, y);
+        if (opacity >= 0) {
+            paintFade(getGraphicsContext2D(), 0, 0, width, height, opacity);
+            return;
+        }
+        draw(getGraphicsContext2D(), 0, 0, width, height, value.get(), centre, hover);
+    }
+
+    /**
+     * Draw a block the way a GameBlock paints itself, onto any part of any canvas, using the sprite of the block
+     * @param gc the graphics context to draw with
+     * @param x left of the block
+     * @param y top of the block
+     * @param width width of the block
+     * @param height height of the block
+     * @param value the value of the block, 0 being empty
+     * @param centre true to mark the block as the centre of a piece
+     * @param hover true if the block is hovered
+     */
+    static void draw(GraphicsContext gc, double x, double y, double width, double height, int value,
+                     boolean centre, boolean hover) {
+        gc.clearRect(x, y, width, height);
+        gc.drawImage(BlockSprites.get(width, height, value, centre, hover), x, y, width, height);
+    }
+
+    /**
+     * Draw a block shape by shape, which is how its sprite is rendered
+     */
+    static void drawShapes(GraphicsContext gc, double x, double y, double width, double height, int value,
+                           boolean centre, boolean hover) {
         //If the block is empty, paint as empty
-        if(value.get() == 0) {
-            paintEmpty();
+        if(value == 0) {
+            paintEmpty(gc, x, y, width, height);
         } else {
             //If the block is not empty, paint with the colour represented by the value
-            paintColor(COLOURS[value.get()]);
+            paintColor(gc, x, y, width, height, COLOURS[value]);
         }
         //if it's the centre of the block draw a shape
         if(centre)
-        centreBlock();
+        centreBlock(gc, x, y, width, height);
 
         //if you are hovering the block perform the hover effect
         if(hover) {
-           doHover();
+           doHover(gc, x, y, width, height);
         }
-
     }
 
     /**
-     * Paint this canvas empty
+     * Paint a block empty
      */
-    private void paintEmpty() {
-        var gc = getGraphicsContext2D();
-
+    static void paintEmpty(GraphicsContext gc, double x, double y, double width, double height) {
         //Clear
-        gc.clearRect(0,0,width,height);
+        gc.clearRect(x,y,width,height);
 
         //Fill
         gc.setFill(Color.TRANSPARENT);
-        gc.fillRect(0,0, width, height);
+        gc.fillRect(x,y, width, height);
 
         //Border
         gc.setStroke(Color.WHITE);
-        gc.strokeRect(0,0,width,height);
+        gc.strokeRect(x,y,width,height);
     }
 
     /**
-     * Paint this canvas with the given colour
+     * Paint a block with the given colour
      * @param colour the colour to paint
      */
-    private void paintColor(Paint colour) {
-        var gc = getGraphicsContext2D();
-
+    private static void paintColor(GraphicsContext gc, double x, double y, double width, double height, Paint colour) {
         //Clear
-        gc.clearRect(0,0,width,height);
+        gc.clearRect(x,y,width,height);
 
         //Colour fill
         gc.setFill(colour);
-        gc.fillRect(0,0,width,height);
+        gc.fillRect(x,y,width,height);
 
         //Shapes
         gc.setStroke(Color.WHITE);
-        gc.strokeRoundRect(2.5,2.5,width-5,height-5,10,10);
-        gc.strokeLine(2.5,2.5,width-3,height-3);
-        gc.strokeLine(2.5,height - 3, width -3 ,2.5);
+        gc.strokeRoundRect(x+2.5,y+2.5,width-5,height-5,10,10);
+        gc.strokeLine(x+2.5,y+2.5,x+width-3,y+height-3);
+        gc.strokeLine(x+2.5,y+height - 3, x+width -3 ,y+2.5);
 
         //Border
         gc.setStroke(Color.BLACK);
-        gc.strokeRect(0,0,width,height);
+        gc.strokeRect(x,y,width,height);
     }
 
     /**
      * draws a circle on the centre of a block to highlight it
      */
     public void centreBlock() {
-        GraphicsContext gc = getGraphicsContext2D();
+        centreBlock(getGraphicsContext2D(), 0, 0, width, height);
+    }
+
+    private static void centreBlock(GraphicsContext gc, double x, double y, double width, double height) {
         gc.setFill(Color.color(1, 1, 1, 0.6));
-        gc.fillOval(width / 4, height / 4, width / 2, height / 2);
+        gc.fillOval(x + width / 4, y + height / 4, width / 2, height / 2);
     }
 
     /**
@@ -200,6 +253,10 @@ public class GameBlock extends Canvas {
      * @param centre boolean value that is true when the centre is found out
      */
     public void setCentre(Boolean centre){
+        if (canvasBoard != null) {
+            canvasBoard.setCentre(x, y, centre);
+            return;
+        }
         this.centre = centre;
         centre = true;
     }
@@ -208,50 +265,33 @@ public class GameBlock extends Canvas {
      * handles the hovering effect on the block
      */
     public void doHover(){
-        GraphicsContext gc = getGraphicsContext2D();
+        if (canvasBoard != null) {
+            canvasBoard.hover(x, y);
+            return;
+        }
+        doHover(getGraphicsContext2D(), 0, 0, width, height);
+    }
+
+    private static void doHover(GraphicsContext gc, double x, double y, double width, double height) {
         gc.setFill(Color.color(1, 1, 1, 0.5));
-        gc.fillRect(0, 0, width, height);
+        gc.fillRect(x, y, width, height);
     }
 
     /**
-     *  starts the animation timer that enables a block to fade out
+     * starts fading out the block, which is animated by its board
      */
     public void fadeOut(){
-        timer = new MyTimer();
-        timer.start();
+        gameBoard.fadeOut(x, y);
     }
 
     /**
-     *  custom AnimationTimer class that handles the fading out animation of a block
-     *  when a line is cleared
+     * Paint a block part way through fading out: empty, under a green square that fades away
+     * @param opacity the opacity of the green square
      */
-    private class MyTimer extends AnimationTimer{
-
-        //opacity is initially set to 1 so full opacity
-        private double opacity = 1 ;
-        @Override
-        public void handle(long l) {
-                fadeOut();
-        }
-
-        /**
-         * the fade out method gradually fades out the block from 1 to 0
-         * decreasing its opacity value by -0.03 each time untill it's 0
-         */
-        private void fadeOut(){
-           paintEmpty();
-            opacity -= 0.03;
-
-            //when the opacity reaches 0 the animation stops
-            if(this.opacity <= 0){
-                stop();
-                timer = null;
-                return;
-            }
-            GraphicsContext gc = getGraphicsContext2D();
-            gc.setFill(Color.color(0, 1, 0, this.opacity));
-            gc.fillRect(0, 0, width, height);
-        }
+    static void paintFade(GraphicsContext gc, double x, double y, double width, double height, double opacity) {
+        paintEmpty(gc, x, y, width, height);
+        gc.setFill(Color.color(0, 1, 0, opacity));
+        gc.fillRect(x, y, width, height);
     }
 
     /**
@@ -275,6 +315,7 @@ public class GameBlock extends Canvas {
      * @return value
      */
     public int getValue() {
+        if (canvasBoard != null) return canvasBoard.grid.get(x, y);
         return this.value.get();
     }
 
@@ -1,12 +1,16 @@
 package uk.ac.soton.comp1206.component;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.GridPane;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.event.BlockClickedListener;
 import uk.ac.soton.comp1206.event.RightClickedListener;
+import uk.ac.soton.comp1206.game.ClearResult;
 import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.GridProperties;
 
 import java.util.HashSet;
 
@@ -37,18 +41,38 @@ public class GameBoard extends GridPane {
     /**
      * The visual width of the board - has to be specified due to being a Canvas
      */
-    private final double width;
+    protected final double width;
 
     /**
      * The visual height of the board - has to be specified due to being a Canvas
      */
-    private final double height;
+    protected final double height;
 
     /**
      * The grid this GameBoard represents
      */
     final Grid grid;
 
+    /**
+     * The property view of the grid that the blocks are bound to, made when the blocks are built
+     */
+    private GridProperties gridProperties;
+
+    /**
+     * Paints the blocks which changed once per pulse, made when the blocks are built
+     */
+    RepaintScheduler repaints;
+
+    /**
+     * Fades out the blocks of cleared lines, made when the blocks are built
+     */
+    FadeAnimator fades;
+
+    /**
+     * Repaints every block when the block sprites are dropped, kept here as the sprites only hold it weakly
+     */
+    private InvalidationListener spritesDropped;
+
     /**
      * The blocks inside the grid
      */
@@ -125,7 +149,11 @@ public class GameBoard extends GridPane {
 
         setGridLinesVisible(true);
 
+        gridProperties = new GridProperties(grid);
         blocks = new GameBlock[cols][rows];
+        repaints = new RepaintScheduler(cols, rows, (x, y) -> blocks[x][y].paint());
+        fades = new FadeAnimator(cols, rows, (x, y) -> blocks[x][y].paint());
+        watchSprites();
 
         for (var y = 0; y < rows; y++) {
             for (var x = 0; x < cols; x++) {
@@ -156,7 +184,7 @@ public class GameBoard extends GridPane {
         blocks[x][y] = block;
 
         //Link the GameBlock component to the corresponding value in the Grid
-        block.bind(grid.getGridProperty(x, y));
+        block.bind(gridProperties.getGridProperty(x, y));
 
         //Add a mouse click handler to the block to trigger GameBoard blockClicked method
         blockClicked(block);
@@ -164,16 +192,59 @@ public class GameBoard extends GridPane {
         return block;
     }
 
+    /**
+     * Repaint every block whenever the block sprites are dropped, such as when the game is scaled to a new size
+     */
+    protected void watchSprites() {
+        spritesDropped = observable -> {
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < cols; x++) {
+                    repaints.request(x, y);
+                }
+            }
+        };
+        BlockSprites.generationProperty().addListener(new WeakInvalidationListener(spritesDropped));
+    }
+
+    /**
+     * Ask for a block to be repainted on the next pulse
+     *
+     * @param x column
+     * @param y row
+     */
+    void requestPaint(int x, int y) {
+        repaints.request(x, y);
+    }
+
     /**
      * fades out a block
      * @param blockCoordinates are the coordinates of the block
      */
     public void fadeOut(HashSet<GameBlockCoordinate> blockCoordinates){
         for(GameBlockCoordinate coordinates : blockCoordinates){
-            getBlock(coordinates.getX(), coordinates.getY()).fadeOut();
+            fadeOut(coordinates.getX(), coordinates.getY());
         }
     }
 
+    /**
+     * fades out the blocks cleared by a placement
+     * @param result the cleared blocks
+     */
+    public void fadeOut(ClearResult result){
+        for(int i = 0; i < result.getBlocks(); i++){
+            fadeOut(result.getCellX(i), result.getCellY(i));
+        }
+    }
+
+    /**
+     * fades out a single block, all the fading blocks of the board being animated together
+     * @param x column
+     * @param y row
+     */
+    public void fadeOut(int x, int y){
+        fades.fadeOut(x, y);
+    }
+
 
     /**
      * Set the listener to handle an event when a block is clicked
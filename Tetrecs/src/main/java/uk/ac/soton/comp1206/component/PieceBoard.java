@@ -3,11 +3,11 @@ package uk.ac.soton.comp1206.component;
 import uk.ac.soton.comp1206.game.GamePiece;
 
 /**
- * The PieceBoard class extends the GameBoard class and handles the
+ * The PieceBoard class extends the CanvasBoard class and handles the
  * appearance of the current and next piece at the right side of the
- * single player and multiplayer challenges
+ * single player and multiplayer challenges, drawing the whole piece on one canvas
  */
-public class PieceBoard extends GameBoard {
+public class PieceBoard extends CanvasBoard {
 
     public PieceBoard(double width, double height) {
         //the piece board always has 3x3 grid dimensions
@@ -36,6 +36,6 @@ public class PieceBoard extends GameBoard {
 
         //the midpoint of those blocks sets the setCentre method true
         //as it's the centre of the block
-        this.blocks[(int) midX][(int) midY].setCentre(true);
+        getBlock((int) midX, (int) midY).setCentre(true);
     }
 }
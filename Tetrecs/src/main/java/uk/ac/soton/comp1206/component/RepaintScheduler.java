@@ -0,0 +1,90 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * The RepaintScheduler holds back the repainting of a board's blocks until the next JavaFX pulse.
+ *
+ * Blocks asking to be repainted are marked in a bitset, and a single AnimationTimer paints every marked block once on
+ * the next pulse, so however many times a block changes in a frame it is only drawn once. The timer only runs while
+ * there is something to paint.
+ */
+public class RepaintScheduler {
+
+    /**
+     * Paints a single block
+     */
+    public interface BlockPainter {
+        void paint(int x, int y);
+    }
+
+    private final int cols;
+
+    /**
+     * The blocks waiting to be painted, one bit per block at x + y * cols
+     */
+    private final long[] dirty;
+
+    private final BlockPainter painter;
+
+    /**
+     * Paints the waiting blocks on the next pulse
+     */
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    /**
+     * Whether the timer is waiting for the next pulse
+     */
+    private boolean scheduled = false;
+
+    /**
+     * Create a scheduler for a board
+     * @param cols number of columns of the board
+     * @param rows number of rows of the board
+     * @param painter paints a block of the board
+     */
+    public RepaintScheduler(int cols, int rows, BlockPainter painter) {
+        this.cols = cols;
+        this.dirty = new long[(cols * rows + 63) >>> 6];
+        this.painter = painter;
+    }
+
+    /**
+     * Ask for a block to be painted on the next pulse
+     * @param x column
+     * @param y row
+     */
+    public void request(int x, int y) {
+        int index = x + y * cols;
+        dirty[index >>> 6] |= 1L << index;
+        if (!scheduled) {
+            scheduled = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Paint every waiting block now, once each
+     */
+    public void flush() {
+        if (scheduled) {
+            scheduled = false;
+            timer.stop();
+        }
+        for (int word = 0; word < dirty.length; word++) {
+            long bits = dirty[word];
+            if (bits == 0) continue;
+            dirty[word] = 0;
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                painter.paint(index % cols, index / cols);
+                bits &= bits - 1;
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package uk.ac.soton.comp1206.component;
 
+import javafx.application.Platform;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
@@ -13,9 +16,14 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.util.Pair;
 
+import java.util.List;
+
 /**
  * The ScoresList class extends the VBox object and handles the appearance and
  * function of the offline scores list that appears when the game is over
+ *
+ * The rows of the list are kept and reused as the scores change, so an update only changes the texts and styles that
+ * differ and adds or removes rows at the end, and changes made to the scores together are shown in a single update.
  */
 public class ScoresList extends VBox {
     //list property that holds the scores
@@ -24,10 +32,13 @@ public class ScoresList extends VBox {
     //string property that holds the username of the player
     private final StringProperty username = new SimpleStringProperty();
 
+    //whether an update is already waiting to run
+    private boolean updatePending = false;
+
     public ScoresList() {
-        //updates score list when scores are updated
+        //updates score list when scores are updated, once for changes made together such as a clear and an addAll
        scores.addListener((ListChangeListener<? super Pair<String, Integer>>)e ->
-                updateList()
+                requestUpdate()
        );
 
         setAlignment(Pos.CENTER);
@@ -35,45 +46,97 @@ public class ScoresList extends VBox {
 
     }
 
+    /**
+     * asks for the list to be updated once the changes being made to the scores are finished
+     */
+    protected void requestUpdate() {
+        if (updatePending) return;
+        updatePending = true;
+        Platform.runLater(() -> {
+            updatePending = false;
+            updateList();
+        });
+    }
+
     /**
      * updates the scores in real time and determines their appearance
      */
     public void updateList() {
-        //the contents of the scores list are removed so it can be updated
-        //without redundancies
-        this.getChildren().clear();
-
-        //all the pairs in the scores list are added to the scores list as an HBox
-        for (Pair<String, Integer> score : scores) {
-            HBox scoreBox = new HBox();
-            scoreBox.setAlignment(Pos.CENTER);
-            scoreBox.getStyleClass().add("scorelist");
-            scoreBox.setSpacing(10);
-
-            //Add name ans set is respective appearance
-            var name = new Text(score.getKey());
-            if(username.get() != null && username.get().equals(name.getText())) {
-                name.getStyleClass().add("myscore");
+        ObservableList<Node> rows = getChildren();
+
+        //rows left over from a longer list are removed from the end
+        if (rows.size() > scores.size()) {
+            rows.remove(scores.size(), rows.size());
+        }
+
+        //every score is shown in the row at its position, reusing the row if there is one
+        for (int i = 0; i < scores.size(); i++) {
+            Pair<String, Integer> score = scores.get(i);
+            HBox scoreBox;
+            if (i < rows.size()) {
+                scoreBox = (HBox) rows.get(i);
+            } else {
+                scoreBox = createRow();
+                rows.add(scoreBox);
             }
-            else {
-                name.getStyleClass().add("scorer");
+
+            //setting a text to what it already holds changes nothing
+            Text name = (Text) scoreBox.getChildren().get(0);
+            Text points = (Text) scoreBox.getChildren().get(1);
+            name.setText(score.getKey());
+            points.setText(score.getValue().toString());
+
+            //styles are only replaced when they differ, so the row isn't styled again
+            List<String> styles = nameStyles(score.getKey());
+            if (!name.getStyleClass().equals(styles)) {
+                name.getStyleClass().setAll(styles);
             }
-            name.setTextAlignment(TextAlignment.CENTER);
-            HBox.setHgrow(name, Priority.ALWAYS);
-            scoreBox.getChildren().add(name);
+        }
+    }
 
-            //Add points and style them
-            var points = new Text(score.getValue().toString());
-            points.getStyleClass().add("points");
-            points.setTextAlignment(TextAlignment.CENTER);
-            HBox.setHgrow(points,Priority.ALWAYS);
-            scoreBox.getChildren().add(points);
+    /**
+     * creates an empty row holding a name and its points
+     * @return the row
+     */
+    protected HBox createRow() {
+        HBox scoreBox = new HBox();
+        scoreBox.setAlignment(Pos.CENTER);
+        scoreBox.getStyleClass().add(rowStyle());
+        scoreBox.setSpacing(10);
 
-            //Add score box to the score list object
-            getChildren().add(scoreBox);
+        //Add name and set its alignment, its style depends on the name shown
+        var name = new Text();
+        name.setTextAlignment(TextAlignment.CENTER);
+        HBox.setHgrow(name, Priority.ALWAYS);
+        scoreBox.getChildren().add(name);
 
-        }
+        //Add points and style them
+        var points = new Text();
+        points.getStyleClass().add("points");
+        points.setTextAlignment(TextAlignment.CENTER);
+        HBox.setHgrow(points,Priority.ALWAYS);
+        scoreBox.getChildren().add(points);
+
+        return scoreBox;
+    }
+
+    /**
+     * @return the style of each row of the list
+     */
+    protected String rowStyle() {
+        return "scorelist";
+    }
 
+    /**
+     * determines the styles of a name in the list
+     * @param player the name
+     * @return the styles of the name
+     */
+    protected List<String> nameStyles(String player) {
+        if (username.get() != null && username.get().equals(player)) {
+            return List.of("myscore");
+        }
+        return List.of("scorer");
     }
 
     /**
@@ -0,0 +1,19 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.GameAction;
+
+/**
+ * The Game Action Listener is used to follow what is done to a game: every placement, rotation, swap and timeout, as
+ * it is made. Replays record these actions and feed them back into a game.
+ */
+public interface GameActionListener {
+
+    /**
+     * Handle an action made on the game
+     * @param action the action
+     * @param x x coordinate of the piece for placements, otherwise 0
+     * @param y y coordinate of the piece for placements, otherwise 0
+     * @param rotation the number of rotations for rotations, otherwise 0
+     */
+    void gameAction(GameAction action, int x, int y, int rotation);
+}
@@ -0,0 +1,39 @@
+package uk.ac.soton.comp1206.event;
+
+/**
+ * The events published by a GameEngine as the game is played
+ */
+public enum GameEvent {
+    /**
+     * A piece was placed on the grid
+     */
+    PIECE_PLACED,
+    /**
+     * A piece could not be placed where it was asked to be
+     */
+    PLACEMENT_FAILED,
+    /**
+     * The current piece changed to the next piece
+     */
+    NEXT_PIECE,
+    /**
+     * One or more lines were cleared by the last placement
+     */
+    LINES_CLEARED,
+    /**
+     * The current piece was rotated
+     */
+    PIECE_ROTATED,
+    /**
+     * The current and following pieces were swapped
+     */
+    PIECES_SWAPPED,
+    /**
+     * The timer ran out and a life was lost
+     */
+    LIFE_LOST,
+    /**
+     * The timer ran out with no lives left
+     */
+    GAME_OVER
+}
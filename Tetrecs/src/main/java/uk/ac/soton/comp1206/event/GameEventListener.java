@@ -0,0 +1,14 @@
+package uk.ac.soton.comp1206.event;
+
+/**
+ * The Game Event Listener is used to follow the stream of events published by a GameEngine.
+ * The state of the game can be read back from the engine when an event is handled
+ */
+public interface GameEventListener {
+
+    /**
+     * Handle an event of the game
+     * @param event the event that happened
+     */
+    void gameEvent(GameEvent event);
+}
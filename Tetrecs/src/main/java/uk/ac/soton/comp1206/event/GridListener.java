@@ -0,0 +1,29 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.GridChanges;
+
+/**
+ * The Grid Listener is used to handle the event when the value of a block in a Grid changes.
+ * It passes the position of the block and its new value. Changes made in a batch are passed together once the batch is
+ * committed.
+ */
+public interface GridListener {
+
+    /**
+     * Handle a block changing value
+     * @param x column of the block
+     * @param y row of the block
+     * @param value the new value of the block
+     */
+    void cellChanged(int x, int y, int value);
+
+    /**
+     * Handle the blocks changed by a committed batch, by default one block at a time
+     * @param changes the changed blocks, only valid until this returns
+     */
+    default void cellsChanged(GridChanges changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            cellChanged(changes.getX(i), changes.getY(i), changes.getValue(i));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.ClearResult;
+
+/**
+ * Handles the clearing of lines when they get full.
+ * It passes the cleared rows, columns and blocks of a placement as a ClearResult, which is reused by the game
+ * and should not be kept after the call
+ */
+public interface LinesClearedListener {
+    /**
+     * handle the lines cleared by a placement
+     * @param result the rows, columns and blocks that were cleared
+     */
+    void linesCleared(ClearResult result);
+}
@@ -0,0 +1,39 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deals pieces from a bag holding one of every piece. The bag is shuffled as it is dealt, and refilled once empty, so
+ * a piece never goes more than 28 pieces without appearing.
+ */
+public class BagStrategy implements PieceStrategy {
+
+    /**
+     * The pieces of the bag, those not dealt yet at the front
+     */
+    private final int[] bag = new int[GamePiece.PIECES];
+
+    /**
+     * Number of pieces left in the bag
+     */
+    private int left = 0;
+
+    public BagStrategy() {
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = i;
+        }
+    }
+
+    @Override
+    public int nextType(SplittableRandom random) {
+        if (left == 0) left = bag.length;
+
+        //a random piece of those left is dealt and swapped behind them, which shuffles the bag as it's dealt
+        int pick = random.nextInt(left);
+        int type = bag[pick];
+        left--;
+        bag[pick] = bag[left];
+        bag[left] = type;
+        return type;
+    }
+}
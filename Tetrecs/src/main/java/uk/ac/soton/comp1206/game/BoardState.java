@@ -0,0 +1,193 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * An immutable snapshot of the blocks of a Grid, taken with Grid.snapshot.
+ *
+ * A board state holds the words of the bitboard and the block count of every row and column, so a snapshot of a 5x5
+ * grid is three longs and ten ints, and restoring it never has to count lines again. The grid hands out the same state again until one of its blocks changes, so snapshots of an unchanged grid, such as
+ * after a rotation or a swap, are shared rather than copied.
+ */
+public final class BoardState {
+
+    /**
+     * Number of bits used to store the value of a block, as in Grid
+     */
+    private static final int VALUE_BITS = 4;
+
+    /**
+     * Number of block values stored in each long of the colour array
+     */
+    private static final int VALUES_PER_WORD = 64 / VALUE_BITS;
+
+    /**
+     * Mask of a single block value
+     */
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+    private final int cols;
+    private final int rows;
+
+    /**
+     * The occupancy bits, never changed once the state is made
+     */
+    private final long[] occupied;
+
+    /**
+     * The packed block values, never changed once the state is made
+     */
+    private final long[] colours;
+
+    /**
+     * The blocks in each row and column, never changed once the state is made
+     */
+    private final int[] rowCounts;
+    private final int[] colCounts;
+
+    /**
+     * Zobrist hash of the occupied blocks
+     */
+    private final long hash;
+
+    /**
+     * Create a board state which takes ownership of the given words
+     *
+     * @param cols      number of columns
+     * @param rows      number of rows
+     * @param occupied  occupancy bits, not to be changed afterwards
+     * @param colours   packed block values, not to be changed afterwards
+     * @param rowCounts blocks in each row, not to be changed afterwards
+     * @param colCounts blocks in each column, not to be changed afterwards
+     * @param hash      Zobrist hash of the occupied blocks
+     */
+    BoardState(int cols, int rows, long[] occupied, long[] colours, int[] rowCounts, int[] colCounts, long hash) {
+        this.cols = cols;
+        this.rows = rows;
+        this.occupied = occupied;
+        this.colours = colours;
+        this.rowCounts = rowCounts;
+        this.colCounts = colCounts;
+        this.hash = hash;
+    }
+
+    /**
+     * Get the value of a block
+     *
+     * @param x column
+     * @param y row
+     * @return the value, or -1 if the position is outside the board
+     */
+    public int get(int x, int y) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) return -1;
+        return value(x + y * cols);
+    }
+
+    /**
+     * Get the value of a block by its index
+     *
+     * @param index x + y * cols
+     * @return the value
+     */
+    int value(int index) {
+        return (int) ((colours[index / VALUES_PER_WORD] >>> ((index % VALUES_PER_WORD) * VALUE_BITS)) & VALUE_MASK);
+    }
+
+    /**
+     * Checks whether a block holds a value
+     *
+     * @param x column
+     * @param y row
+     * @return true if the block is inside the board and not empty
+     */
+    public boolean isOccupied(int x, int y) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) return false;
+        int index = x + y * cols;
+        return (occupied[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Get a word of the occupancy bits, laid out as in Grid.getOccupancyWord
+     *
+     * @param word index of the word
+     * @return the occupancy bits
+     */
+    public long getOccupancyWord(int word) {
+        return occupied[word];
+    }
+
+    /**
+     * Get the number of words holding the occupancy bits
+     *
+     * @return number of words
+     */
+    public int getOccupancyWords() {
+        return occupied.length;
+    }
+
+    /**
+     * Get a word of the packed block values
+     *
+     * @param word index of the word
+     * @return 16 block values of 4 bits each
+     */
+    long getColourWord(int word) {
+        return colours[word];
+    }
+
+    /**
+     * Copy the block counts of every row and column
+     *
+     * @param rowCounts filled with the blocks in each row
+     * @param colCounts filled with the blocks in each column
+     */
+    void copyCounts(int[] rowCounts, int[] colCounts) {
+        System.arraycopy(this.rowCounts, 0, rowCounts, 0, rows);
+        System.arraycopy(this.colCounts, 0, colCounts, 0, cols);
+    }
+
+    /**
+     * Get the number of blocks in a row
+     *
+     * @param y row
+     * @return the blocks in the row
+     */
+    public int getRowCount(int y) {
+        return rowCounts[y];
+    }
+
+    /**
+     * Get the number of blocks in a column
+     *
+     * @param x column
+     * @return the blocks in the column
+     */
+    public int getColCount(int x) {
+        return colCounts[x];
+    }
+
+    /**
+     * Get the Zobrist hash of the occupied blocks
+     *
+     * @return the hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the number of columns
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+}
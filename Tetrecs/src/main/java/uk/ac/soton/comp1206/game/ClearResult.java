@@ -0,0 +1,191 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+
+/**
+ * The ClearResult holds the rows, columns and blocks cleared by a single placement.
+ *
+ * Cleared rows and columns are stored as bitmasks and cleared blocks as a list of packed block indexes
+ * (x + y * cols). A ClearResult is created once per grid and reset before every placement, so a placement that clears
+ * nothing does not create anything. Listeners receiving a ClearResult should not keep hold of it.
+ */
+public class ClearResult {
+
+    /**
+     * Number of columns of the grid this result belongs to
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the grid this result belongs to
+     */
+    private final int rows;
+
+    /**
+     * Bitmask of the cleared rows
+     */
+    private final long[] clearedRows;
+
+    /**
+     * Bitmask of the cleared columns
+     */
+    private final long[] clearedCols;
+
+    /**
+     * Packed indexes of the cleared blocks
+     */
+    private final int[] cells;
+
+    /**
+     * Number of cleared blocks held in cells
+     */
+    private int cellCount;
+
+    /**
+     * Number of cleared rows and columns
+     */
+    private int lines;
+
+    /**
+     * Create a new empty result for a grid of the given size
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public ClearResult(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        clearedRows = new long[(rows + 63) >>> 6];
+        clearedCols = new long[(cols + 63) >>> 6];
+
+        //a piece touches at most 3 rows and 3 columns, so this never has to grow
+        cells = new int[Math.min(cols * rows, 3 * cols + 3 * rows)];
+    }
+
+    /**
+     * Create a copy of this result that later placements do not change
+     * @return the copy
+     */
+    public ClearResult copy() {
+        ClearResult copy = new ClearResult(cols, rows);
+        System.arraycopy(clearedRows, 0, copy.clearedRows, 0, clearedRows.length);
+        System.arraycopy(clearedCols, 0, copy.clearedCols, 0, clearedCols.length);
+        System.arraycopy(cells, 0, copy.cells, 0, cellCount);
+        copy.cellCount = cellCount;
+        copy.lines = lines;
+        return copy;
+    }
+
+    /**
+     * Empty this result, ready for the next placement
+     */
+    public void reset() {
+        if (lines == 0) return;
+        Arrays.fill(clearedRows, 0);
+        Arrays.fill(clearedCols, 0);
+        cellCount = 0;
+        lines = 0;
+    }
+
+    /**
+     * Mark a row as cleared
+     * @param y row
+     */
+    void addRow(int y) {
+        clearedRows[y >>> 6] |= 1L << y;
+        lines++;
+    }
+
+    /**
+     * Mark a column as cleared
+     * @param x column
+     */
+    void addCol(int x) {
+        clearedCols[x >>> 6] |= 1L << x;
+        lines++;
+    }
+
+    /**
+     * Add a cleared block
+     * @param x column
+     * @param y row
+     */
+    void addCell(int x, int y) {
+        cells[cellCount++] = x + y * cols;
+    }
+
+    /**
+     * Checks whether a row was cleared
+     * @param y row
+     * @return true if the row was cleared
+     */
+    public boolean isRowCleared(int y) {
+        return (clearedRows[y >>> 6] & (1L << y)) != 0;
+    }
+
+    /**
+     * Checks whether a column was cleared
+     * @param x column
+     * @return true if the column was cleared
+     */
+    public boolean isColCleared(int x) {
+        return (clearedCols[x >>> 6] & (1L << x)) != 0;
+    }
+
+    /**
+     * Checks whether nothing was cleared
+     * @return true if no lines were cleared
+     */
+    public boolean isEmpty() {
+        return lines == 0;
+    }
+
+    /**
+     * Get the number of cleared rows and columns
+     * @return lines cleared
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Get the number of cleared blocks, counting blocks shared by a row and a column once
+     * @return blocks cleared
+     */
+    public int getBlocks() {
+        return cellCount;
+    }
+
+    /**
+     * Get the column of a cleared block
+     * @param i index of the cleared block, from 0 to getBlocks() - 1
+     * @return column
+     */
+    public int getCellX(int i) {
+        return cells[i] % cols;
+    }
+
+    /**
+     * Get the row of a cleared block
+     * @param i index of the cleared block, from 0 to getBlocks() - 1
+     * @return row
+     */
+    public int getCellY(int i) {
+        return cells[i] / cols;
+    }
+
+    /**
+     * Get the number of columns of the grid this result belongs to
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows of the grid this result belongs to
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+}
@@ -1,6 +1,6 @@
 package uk.ac.soton.comp1206.game;
 
-import javafx.application.Platform;
+import javafx.animation.AnimationTimer;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.util.Pair;
@@ -9,17 +9,24 @@ import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.Utilities.Multimedia;
 import uk.ac.soton.comp1206.component.GameBlock;
 import uk.ac.soton.comp1206.component.GameBlockCoordinate;
+import uk.ac.soton.comp1206.event.GameEvent;
 import uk.ac.soton.comp1206.event.GameLoopListener;
 import uk.ac.soton.comp1206.event.GameOverListener;
 import uk.ac.soton.comp1206.event.LineClearedListener;
+import uk.ac.soton.comp1206.event.LinesClearedListener;
 import uk.ac.soton.comp1206.event.NextPieceListener;
 
 import java.util.*;
 import java.util.concurrent.*;
 
 /**
- * The Game class handles the main logic, state and properties of the TetrECS game. Methods to manipulate the game state
- * and to handle actions made by the player should take place inside this class.
+ * The Game class connects a GameEngine, which holds the rules and state of the TetrECS game, to the user interface.
+ * It exposes the state of the engine as properties, plays the sounds of the game, runs the game loop timer and calls
+ * the listeners of the scenes as the engine publishes its events.
+ *
+ * The engine belongs to a GameActor thread. Input, the game loop timer and the network all reach it as commands, so
+ * nothing changes the engine at the same time. Once every pulse the latest snapshot of the engine is copied into the
+ * grid and properties the scenes see, and the sounds and listener calls the engine's events asked for are made.
  */
 public class Game {
 
@@ -36,15 +43,47 @@ public class Game {
     protected final int cols;
 
     /**
-     * The grid model linked to the game
+     * The engine running the rules of the game
+     */
+    protected final GameEngine engine;
+
+    /**
+     * The grid model shown to the player, a copy of the engine's grid updated every pulse
      */
     protected final Grid grid;
 
-    private Random random;
+    /**
+     * The thread that runs the engine
+     */
+    protected final GameActor actor;
+
+    /**
+     * Copies the state of the engine into the user interface once per pulse
+     */
+    private final AnimationTimer pulse;
+
+    /**
+     * The snapshot shown to the player
+     */
+    private GameSnapshot shown;
+
+    /**
+     * Work for the user interface asked for by the engine's events, held on the actor thread until the snapshot of
+     * the same state is published, then passed on to the pulse
+     */
+    private final ArrayList<Runnable> pendingUpdates = new ArrayList<>();
+    private final MpscQueue<Runnable> updates = new MpscQueue<>();
+    private final ArrayList<Runnable> runningUpdates = new ArrayList<>();
+
+    /**
+     * The tablebase hints and danger are looked up in, or null if there is no tablebase file for this size
+     */
+    private final Tablebase tablebase;
 
-    //Game Piece objects for the current and next piece are initialised
-    protected GamePiece currentPiece;
-    protected GamePiece followingPiece;
+    /**
+     * Works out tablebase entries when there is no tablebase, created the first time it's needed
+     */
+    private TablebaseGenerator entries;
 
     //Integer properties for the score, level, lives and multiplier set
     private final IntegerProperty score = new SimpleIntegerProperty(0);
@@ -58,29 +97,103 @@ public class Game {
      */
     protected NextPieceListener nextPieceListener = null;
     protected LineClearedListener lineClearedListener = null;
+    protected LinesClearedListener linesClearedListener = null;
     protected GameLoopListener gameLooplistener = null;
     protected GameOverListener gameOverlistener = null;
 
     protected int timeDelay;
 
-    //used to create a scheduled future for the game loop
-    private final ScheduledExecutorService timer =  Executors.newSingleThreadScheduledExecutor();
-    protected ScheduledFuture<?> scheduledFuture;
+    //times the game loop, shared with the other games
+    protected final GameClock clock;
+    //the game loop timer running now, only scheduled and cancelled on the actor thread
+    protected volatile GameClock.Task loopTask;
+    //set once the game is stopped so no more game loops are scheduled
+    private volatile boolean stopped = false;
+    //counts up whenever the game loop timer starts again, so a timer that already fired before it was reset is
+    //ignored, only used on the actor thread
+    private long loopGeneration = 0;
 
     //stores the scores
     protected ArrayList<Pair<String,Integer>> scores = new ArrayList();
     /**
-     * Create a new game with the specified rows and columns. Creates a corresponding grid model.
+     * Create a new game with the specified rows and columns. Creates a corresponding engine and grid model.
      * @param cols number of columns
      * @param rows number of rows
      */
     public Game(int cols, int rows) {
+        this(cols, rows, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Create a new game with the specified rows and columns, dealing random pieces from a seed so the game can be
+     * played again
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param seed the seed of the pieces
+     */
+    public Game(int cols, int rows, long seed) {
+        this(cols, rows, seed, GameClock.realTime());
+    }
+
+    /**
+     * Create a new game with the specified rows and columns, dealing random pieces from a seed and timing the game
+     * loop with the given clock
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param seed the seed of the pieces
+     * @param clock the clock timing the game loop
+     */
+    public Game(int cols, int rows, long seed, GameClock clock) {
+        this(cols, rows, new PieceSequence(seed), clock);
+        logger.info("Piece seed: {}", seed);
+    }
+
+    /**
+     * Create a new game with the specified rows and columns, dealing pieces from the given sequence
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param pieceSequence the sequence of pieces, used by this game only
+     */
+    protected Game(int cols, int rows, PieceSequence pieceSequence) {
+        this(cols, rows, pieceSequence, GameClock.realTime());
+    }
+
+    /**
+     * Create a new game with the specified rows and columns, dealing pieces from the given sequence and timing the
+     * game loop with the given clock
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param pieceSequence the sequence of pieces, used by this game only
+     * @param clock the clock timing the game loop
+     */
+    protected Game(int cols, int rows, PieceSequence pieceSequence, GameClock clock) {
         this.cols = cols;
         this.rows = rows;
+        this.clock = clock;
+
+        //Create a new engine to run the game
+        this.engine = new GameEngine(cols,rows,pieceSequence);
+        this.grid = new Grid(cols, rows);
 
-        //Create a new grid model to represent the game state
-        this.grid = new Grid(cols,rows);
+        //pieces are spawned through this class so subclasses can supply their own
+        engine.setPieceSource(this::spawnPiece);
 
+        engine.addListener(this::handleEvent);
+
+        this.tablebase = Tablebase.forSize(cols, rows);
+
+        //the engine runs on its own thread from here on
+        this.actor = new GameActor(engine, "Game actor");
+        actor.setOnPublish(this::publishUpdates);
+        actor.start();
+
+        this.pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                update();
+            }
+        };
+        pulse.start();
     }
 
     /**
@@ -97,7 +210,12 @@ public class Game {
      */
     public void stop(){
         logger.info("Terminating game");
-        timer.shutdownNow();
+        stopped = true;
+        //the timer is cancelled here as the actor may never get to it once stopped
+        GameClock.Task task = loopTask;
+        if (task != null) task.cancel();
+        actor.stop();
+        pulse.stop();
     }
 
     /**
@@ -106,159 +224,195 @@ public class Game {
     public void initialiseGame() {
         logger.info("Initialising game");
         Multimedia.playMusic("game.wav");
-        followingPiece = spawnPiece();
-        nextPiece();
+        submit(GameEngine::initialisePieces);
     }
 
     /**
-     * Handle what should happen when a particular block is clicked
-     * @param gameBlock the block that was clicked
+     * Queue a change to the engine, run on the actor thread
+     * @param command the change
      */
-    public boolean blockClicked(GameBlock gameBlock) {
-        //Get the x and y positions of this block - 1 so it's placed on its centre
-        int x = gameBlock.getX()-1;
-        int y = gameBlock.getY()-1;
-
-         /*
-            this boolean value will determine if it's possible to place the current
-            piece from its centre
-         */
-        boolean centeredPiece = grid.playPiece(currentPiece,x,y);
-
-        //if the piece cannot be placed from its centre, then it's not placed
-        if(!centeredPiece){
-            logger.info("Cannot place piece!");
-            Multimedia.playAudio("fail.wav");
-           return false;
-        }
-        //if the piece can be placed it's placed and the nextPiece and afterPiece methods are called
-    else {
-            nextPiece();
-            afterPiece();
-            Multimedia.playAudio("place.wav");
-            return true;
-        }
+    public void submit(GameCommand command) {
+        actor.submit(command);
     }
 
     /**
-     * spawns a random piece
-     * @return a random piece
+     * Queue work for the user interface, from the actor thread
+     * @param update the work, run on the JavaFX thread by the pulse once the state it follows is shown
      */
-    public GamePiece spawnPiece(){
-        random = new Random();
-        //selects a random value for the piece from 0-14 included
-        int randomPiece = random.nextInt(15);
-        //creates and returns th piece
-        return GamePiece.createPiece(randomPiece);
+    protected void post(Runnable update) {
+        pendingUpdates.add(update);
     }
 
     /**
-     * fetches the next piece of the game
-     * @return the current piece to be displayed
+     * Pass the work queued for the user interface on to the pulse, called by the actor after publishing a snapshot so
+     * the pulse never runs work ahead of the snapshot it follows
      */
-    public GamePiece nextPiece(){
-
-        //the current piece is set to the next piece
-        this.currentPiece = this.followingPiece;
-
-        //the next piece is created
-        followingPiece = spawnPiece();
-
-        if (this.nextPieceListener != null) {
-            this.nextPieceListener.nextPiece(this.currentPiece);
+    private void publishUpdates() {
+        for (Runnable update : pendingUpdates) {
+            updates.offer(update);
         }
-        logger.info("The next piece is: {}", followingPiece);
-
-        return this.currentPiece;
+        pendingUpdates.clear();
     }
 
-
     /**
-     * clears the line of the row or column that has full blocks
+     * Show the latest state of the engine, then run the work its events asked for. Called once per pulse
      */
-    public void afterPiece(){
-        int linesCleared = 0;
-        int blocksCleared = 0;
-
-        //cleared blocks are stored in a hash set
-        HashSet<GameBlockCoordinate> clearedBlocks = new HashSet<>();
+    private void update() {
+        //the work is taken before the snapshot, so the snapshot is at least as new as the work
+        Runnable update;
+        while ((update = updates.poll()) != null) {
+            runningUpdates.add(update);
+        }
 
-        //removes rows that have full blocks in them
-        for (int y = 0; y < getRows(); y++) {
-            //stores the number of rows
-            int rowNum = getRows();
+        GameSnapshot snapshot = actor.getSnapshot();
+        if (snapshot != shown) {
+            show(snapshot);
+        }
 
-            //loops through the column values from the grid that are not 0
-            for (int i = 0; i < getCols() && this.grid.get(i, y) != 0; i++){
-                rowNum--;
+        for (Runnable running : runningUpdates) {
+            running.run();
         }
-            /* when all the rows are checked, the rows that are full are removed,
-               because the values of their blocks are set 0
-            */
-            if (rowNum == 0) {
-                for (int i = 0; i < getCols(); i++) {
-                    blocksCleared++;
-                    //the value at the point of the cleared block is set to 0
-                    grid.set(i,y,0);
-                    //cleared blocks are added to the hash set
-                    clearedBlocks.add(new GameBlockCoordinate(i,y));
-                }
-                linesCleared++;
-                Multimedia.playAudio("clear.wav");
-                logger.info("Removed Row!");
-            }
+        runningUpdates.clear();
+    }
+
+    /**
+     * Copy a snapshot into the grid and properties
+     * @param snapshot the snapshot
+     */
+    private void show(GameSnapshot snapshot) {
+        GameSnapshot previous = shown;
+        shown = snapshot;
+
+        //only the changed words are visited, and the board hears about every changed block at once
+        grid.restore(snapshot.getState().getBoard());
+
+        score.set(snapshot.getScore());
+        level.set(snapshot.getLevel());
+        lives.set(snapshot.getLives());
+        multiplier.set(snapshot.getMultiplier());
+
+        //the pieces changed by being dealt, rotated or swapped
+        boolean piecesChanged = previous == null || previous.getCurrentPiece() != snapshot.getCurrentPiece()
+                || previous.getFollowingPiece() != snapshot.getFollowingPiece();
+        if (piecesChanged && snapshot.getCurrentPiece() != null && nextPieceListener != null) {
+            nextPieceListener.nextPiece(snapshot.getCurrentPiece());
         }
+    }
 
-        //removes columns that have full blocks in them
-        for (int x = 0; x < getCols() ; x++) {
-            int rowNum = getRows();
+    /**
+     * Get the state of the game being shown
+     * @return the snapshot shown, or the latest one before the first pulse
+     */
+    private GameSnapshot snapshot() {
+        return shown != null ? shown : actor.getSnapshot();
+    }
 
-            //loops through the row values from the grid that are not 0
-            for (int i = 0; i < getRows() && this.grid.get(x, i) != 0; i++){
-                rowNum--;
-        }
-            /* when all the rows are checked, the columns that are full are removed,
-               because the values of their blocks are set to 0
-            */
-            if (rowNum == 0) {
-                for (int i = 0; i < getRows() ; i++) {
-                    blocksCleared++;
-                    //the value at the point of the cleared block is set to 0
-                    grid.set(x,i,0);
-                    //cleared blocks are added to the hash set
-                    clearedBlocks.add(new GameBlockCoordinate(x,i));
-                }
-                linesCleared++;
-                Multimedia.playAudio("clear.wav");
-                logger.info("Removed Column!");
+    /**
+     * Handle the events published by the engine on the actor thread, queueing the sounds and listener calls they
+     * ask for. The next piece is shown by the pulse whenever the pieces change
+     * @param event the event published
+     */
+    private void handleEvent(GameEvent event) {
+        switch (event) {
+            case PLACEMENT_FAILED -> {
+                logger.info("Cannot place piece!");
+                post(() -> Multimedia.playAudio("fail.wav"));
             }
+            case PIECE_PLACED -> post(() -> Multimedia.playAudio("place.wav"));
+            case NEXT_PIECE -> logger.info("The next piece is: {}", engine.getFollowingPiece());
+            case LINES_CLEARED -> {
+                //the engine reuses its result, so the listeners get their own copy
+                ClearResult result = engine.getClearResult().copy();
+                post(() -> linesCleared(result));
+            }
+            case PIECES_SWAPPED -> logger.info("Swapping Pieces");
+            case LIFE_LOST -> post(() -> Multimedia.playAudio("lifelose.wav"));
+            case GAME_OVER -> post(() -> {
+                if(gameOverlistener != null) {
+                    logger.info("GAME OVER");
+                    gameOverlistener.endGame();
+                }
+            });
         }
-        //if no lines are cleared the multiplier is reset back to 1
-        if(linesCleared == 0){
-            multiplier.set(1);
+    }
+
+    /**
+     * plays the clearing sounds and passes the cleared blocks on to the listeners
+     * @param result the lines and blocks cleared
+     */
+    private void linesCleared(ClearResult result) {
+        for (int i = 0; i < result.getLines(); i++) {
+            Multimedia.playAudio("clear.wav");
         }
-        //if more than 0 lines are cleared the multiplier gets one point
-        if (linesCleared > 0)
-            multiplier.set(multiplier.add(1).get());
+        logger.info("Removed {} lines", result.getLines());
 
-        //lines cleared and blocks cleared are passed to the score method
-        score(linesCleared,blocksCleared);
+        if(linesClearedListener != null){
+            linesClearedListener.linesCleared(result);
+        }
 
+        //the coordinate set is only built for listeners that still ask for it
         if(lineClearedListener != null){
+            HashSet<GameBlockCoordinate> clearedBlocks = new HashSet<>();
+            for (int i = 0; i < result.getBlocks(); i++) {
+                clearedBlocks.add(new GameBlockCoordinate(result.getCellX(i), result.getCellY(i)));
+            }
             lineClearedListener.lineCleared(clearedBlocks);
         }
+    }
 
-        //the level is set so that every 1000 points of score the level gets one
-        level.set(Math.floorDiv(getScore().get(), 1000));
+    /**
+     * Handle what should happen when a particular block is clicked
+     * @param gameBlock the block that was clicked
+     */
+    public void blockClicked(GameBlock gameBlock) {
+        //the piece is placed on its centre, so its 3x3 grid starts one block up and left
+        placePiece(gameBlock.getX() - 1, gameBlock.getY() - 1);
+    }
 
+    /**
+     * Place the current piece with the top left of its 3x3 grid at the given position, as a player clicking the block
+     * at its centre would. The placement is made by the actor after any rotations and swaps asked for before it, and
+     * the game loop starts again if the engine placed the piece
+     * @param x x coordinate of the piece
+     * @param y y coordinate of the piece
+     */
+    public void placePiece(int x, int y) {
+        submit(engine -> {
+            if (engine.placePiece(x, y)) restartLoop(engine);
+        });
+    }
 
+    /**
+     * spawns the next piece of the piece sequence
+     * @return the next piece
+     */
+    public GamePiece spawnPiece(){
+        return engine.getPieceSequence().spawnPiece();
+    }
+
+    /**
+     * moves the game on to the next piece
+     */
+    public void nextPiece(){
+        submit(GameEngine::nextPiece);
+    }
+
+    /**
+     * clears the lines of the rows and columns that are full after a piece was placed.
+     * Only the rows and columns touched by the piece can have become full, so only those are checked
+     * @param piece the piece that was placed
+     * @param x x coordinate the piece was placed at
+     * @param y y coordinate the piece was placed at
+     */
+    public void afterPiece(GamePiece piece, int x, int y){
+        submit(engine -> engine.afterPiece(piece, x, y));
     }
 
     /**
      * rotates the current piece
      */
     public void rotatePiece(){
-        currentPiece.rotate();
+        submit(GameEngine::rotatePiece);
     }
 
     /**
@@ -266,17 +420,14 @@ public class Game {
      * @param rotations stores the value of the rotation to be given
      */
     public void rotatePiece(int rotations){
-        currentPiece.rotate(rotations);
+        submit(engine -> engine.rotatePiece(rotations));
     }
 
     /**
      * swaps the current piece with the next one and vice versa
      */
     public void swapCurrentPiece(){
-        GamePiece piece = getCurrentPiece();
-        currentPiece = getFollowingPiece();
-        followingPiece = piece;
-        logger.info("Swapping Pieces");
+        submit(GameEngine::swapCurrentPiece);
     }
 
     /**
@@ -286,13 +437,53 @@ public class Game {
      * @param blocksCleared stores the blocks cleared
      */
     public void score(int linesCleared,int blocksCleared){
-        //if no lines are cleared the score stays the same
-        if(linesCleared == 0)
-            return;
-        else{
-            this.score.set(score.add(linesCleared * blocksCleared * 10 * multiplier.get()).get());
-            logger.info("Score updated: {}", getScore().get());
+        submit(engine -> {
+            engine.score(linesCleared, blocksCleared);
+            if (linesCleared > 0) {
+                logger.info("Score updated: {}", engine.getScore());
+            }
+        });
+    }
+
+    /**
+     * Get the tablebase entry of the grid as it is now. It's looked up if there is a tablebase and worked out straight
+     * away for boards of up to 64 blocks, while bigger boards have every placement tried on a copy of the grid in the
+     * background, so the user interface thread is never held up
+     * @return the entry, see Tablebase
+     */
+    public CompletableFuture<Long> tablebaseEntry() {
+        if (tablebase != null) {
+            return CompletableFuture.completedFuture(tablebase.entry(grid.getOccupancyWord(0)));
+        }
+        if (entries == null) {
+            entries = new TablebaseGenerator(cols, rows);
+        }
+        TablebaseGenerator generator = entries;
+        if (cols * rows <= Long.SIZE) {
+            return CompletableFuture.completedFuture(generator.entry(grid));
         }
+        Grid board = grid.copy();
+        return CompletableFuture.supplyAsync(() -> generator.entry(board));
+    }
+
+    /**
+     * Get the most lines the current piece can clear with a single placement, as a hint for the player
+     * @param entry the tablebase entry of the grid
+     * @return the lines, or -1 if the current piece cannot be placed or the pieces have not been dealt yet
+     */
+    public int getBestClears(long entry) {
+        GamePiece piece = getCurrentPiece();
+        if (piece == null) return -1;
+        return Tablebase.bestClears(entry, piece.getType());
+    }
+
+    /**
+     * Get how close the board is to being stuck, as the share of pieces that could not be placed anywhere on it
+     * @param entry the tablebase entry of the grid
+     * @return the danger, from 0 when every piece fits to 1 when none do
+     */
+    public double getDanger(long entry) {
+        return (double) Tablebase.blockedPieces(entry) / GamePiece.PIECES;
     }
 
     /**
@@ -300,60 +491,111 @@ public class Game {
      * @return the maximum between 2500 and the calculated number
      */
     public int getTimeDelay(){
-        int max = 12000 - (500 * level.get());
-        int max2 = 2500;
-        return Math.max(max, max2);
+        return snapshot().getTimeDelay();
     }
 
     /**
-     * creates the game loop
+     * runs the game loop when the timer runs out, on the clock's thread
+     * @param generation the generation of the timer that ran out
      */
-    public void gameLoop(){
-        //if the lives reach 0 the game is terminated
-        if(lives.get() == 0){
-            if(gameOverlistener != null) {
-                logger.info("GAME OVER");
-                Platform.runLater(() -> gameOverlistener.endGame());
-                return;
-            }
+    private void gameLoop(long generation){
+        submit(engine -> loop(engine, generation));
+    }
+
+    /**
+     * runs the timer out and schedules the next game loop, on the actor thread
+     * @param engine the engine
+     * @param generation the generation of the timer that ran out
+     */
+    private void loop(GameEngine engine, long generation){
+        //the timer was reset after it fired, so the game loop it started is out of date
+        if(generation != loopGeneration){
+            return;
+        }
+        //if the lives have run out the engine ends the game
+        if(!engine.timeout()){
+            return;
         }
-        //the lives are decreased by 1
-        lives.set(getLives().subtract(1).get());
-        Multimedia.playAudio("lifelose.wav");
-        //the piece is changed with the next one
-        nextPiece();
-        //the multiplier is set back to 1
-        multiplier.set(1);
-
-       this.timeDelay = getTimeDelay();
         logger.info("Starting Game Loop");
+        scheduleLoop(engine);
+    }
 
-       if(gameLooplistener != null)
-           this.gameLooplistener.loop(timeDelay);
+    /**
+     * schedules the next game loop and tells the scene it started, on the actor thread
+     * @param engine the engine
+     */
+    private void scheduleLoop(GameEngine engine){
+        this.timeDelay = engine.getTimeDelay();
+        int delay = timeDelay;
+
+        if(stopped) return;
+
+        //the game loop is run by the clock after the time delay in milliseconds
+        long generation = ++loopGeneration;
+        loopTask = clock.schedule(() -> gameLoop(generation), delay);
+        post(() -> {
+            if(gameLooplistener != null)
+                this.gameLooplistener.loop(delay);
+        });
+    }
 
-       /*
-        * a scheduled future is scheduled by the ScheduledExecutorService,
-        * the game loop is executed with the time delay in milliseconds
-        */
-       scheduledFuture = timer.schedule(this::gameLoop,getTimeDelay(),TimeUnit.MILLISECONDS);
+    /**
+     * runs the timer out once without scheduling the next game loop, for replays that decide when the timer ran out
+     */
+    public void timeout(){
+        submit(engine -> {
+            if(!engine.timeout()){
+                return;
+            }
+            int delay = engine.getTimeDelay();
+            post(() -> {
+                if(gameLooplistener != null)
+                    this.gameLooplistener.loop(delay);
+            });
+        });
     }
 
     /**
      * starts the game loop
      */
     public void startGameLoop(){
-       scheduledFuture = timer.schedule(this::gameLoop,getTimeDelay(), TimeUnit.MILLISECONDS);
-        if(gameLooplistener != null)
-            this.gameLooplistener.loop(getTimeDelay());
-
+        submit(this::scheduleLoop);
     }
 
     /**
      * restarts the game loop without changing any values
      */
     public void resetGameLoop(){
-        scheduledFuture.cancel(false);
-        startGameLoop();
+        submit(this::restartLoop);
+    }
+
+    /**
+     * cancels the game loop timer and starts it again, on the actor thread. Replays run without a timer, so nothing
+     * is started for them
+     * @param engine the engine
+     */
+    private void restartLoop(GameEngine engine){
+        if(loopTask == null)
+            return;
+        loopTask.cancel();
+        scheduleLoop(engine);
+    }
+
+    /**
+     * Get the engine running the rules of this game. Once the game is created the engine belongs to the actor thread,
+     * so it should only be touched by commands, or to add listeners before the game starts
+     * @return the game engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Get the sequence the pieces of this game are dealt from
+     * @return the piece sequence
+     */
+    public PieceSequence getPieceSequence() {
+        return engine.getPieceSequence();
     }
 
     /**
@@ -385,7 +627,7 @@ public class Game {
      * @return teh next piece
      */
     public GamePiece getFollowingPiece(){
-        return followingPiece;
+        return snapshot().getFollowingPiece();
     }
 
     /**
@@ -393,7 +635,7 @@ public class Game {
      * @return the current piece
      */
     public GamePiece getCurrentPiece(){
-        return currentPiece;
+        return snapshot().getCurrentPiece();
     }
 
     /**
@@ -426,6 +668,9 @@ public class Game {
     public void setLineClearedListener(LineClearedListener listener){
         this.lineClearedListener = listener;
     }
+    public void setLinesClearedListener(LinesClearedListener listener){
+        this.linesClearedListener = listener;
+    }
     public void setOnGameLoop(GameLoopListener listener){
         this.gameLooplistener = listener;
     }
@@ -0,0 +1,28 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The actions that can be made on a game, which together with the seed of its pieces decide everything that happens
+ * in it.
+ */
+public enum GameAction {
+
+    /**
+     * The current piece was placed, or a placement was tried and failed
+     */
+    PLACE,
+
+    /**
+     * The current piece was rotated
+     */
+    ROTATE,
+
+    /**
+     * The current and following pieces were swapped
+     */
+    SWAP,
+
+    /**
+     * The timer ran out
+     */
+    TIMEOUT
+}
@@ -0,0 +1,137 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A GameActor owns a GameEngine and is the only thread that changes it.
+ *
+ * Other threads - the user interface, the game loop timer and the network - submit GameCommands to a lock-free queue.
+ * The actor runs every command waiting, then publishes a GameSnapshot of the state they left, so a burst of commands
+ * publishes once. It sleeps while there is nothing to run.
+ */
+public class GameActor {
+
+    private static final Logger logger = LogManager.getLogger(GameActor.class);
+
+    /**
+     * The engine, only touched by the actor thread once started
+     */
+    private final GameEngine engine;
+
+    /**
+     * Commands waiting to be run
+     */
+    private final MpscQueue<GameCommand> commands = new MpscQueue<>();
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    //set while the actor thread is parked, so submitters know to wake it
+    private volatile boolean waiting = false;
+
+    /**
+     * The latest snapshot published
+     */
+    private volatile GameSnapshot snapshot;
+
+    /**
+     * Called on the actor thread after every snapshot is published
+     */
+    private Runnable onPublish = null;
+
+    /**
+     * Create an actor for an engine. Nothing runs until the actor is started.
+     * @param engine the engine, which must not be touched by other threads once the actor is started
+     * @param name the name of the actor thread
+     */
+    public GameActor(GameEngine engine, String name) {
+        this.engine = engine;
+        this.snapshot = new GameSnapshot(engine, 0);
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Start the actor thread
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stop the actor thread, dropping any commands still waiting
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Queue a command to run on the actor thread, from any thread
+     * @param command the command
+     */
+    public void submit(GameCommand command) {
+        commands.offer(command);
+        if (waiting) LockSupport.unpark(thread);
+    }
+
+    /**
+     * Get the latest state of the game, from any thread
+     * @return the latest snapshot published
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Set what happens after every snapshot is published, called on the actor thread
+     * @param onPublish the action, set before the actor is started
+     */
+    public void setOnPublish(Runnable onPublish) {
+        this.onPublish = onPublish;
+    }
+
+    /**
+     * Checks whether the calling thread is the actor thread
+     * @return true on the actor thread
+     */
+    public boolean isActorThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Run commands as they arrive, publishing a snapshot whenever the queue runs dry after running any
+     */
+    private void run() {
+        long version = 0;
+        boolean changed = false;
+        while (running) {
+            GameCommand command = commands.poll();
+            if (command != null) {
+                try {
+                    command.execute(engine);
+                } catch (RuntimeException e) {
+                    logger.error("Game command failed", e);
+                }
+                changed = true;
+                continue;
+            }
+
+            if (changed) {
+                snapshot = new GameSnapshot(engine, ++version);
+                if (onPublish != null) onPublish.run();
+                changed = false;
+                continue;
+            }
+
+            //the queue is checked again after raising the flag, so a command submitted in between is not missed
+            waiting = true;
+            if (commands.isEmpty() && running) LockSupport.park(this);
+            waiting = false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A GameClock tells the time and runs tasks after a delay, for game loop timers.
+ *
+ * The real time clock runs the tasks of every game on one shared daemon thread. A virtual clock only moves when it is
+ * told to, running the tasks that fall due as it goes, so headless games and tests can skip through hours of game
+ * loops at once. Tasks should be short, passing any real work on to the game's own thread.
+ */
+public interface GameClock {
+
+    /**
+     * A scheduled task
+     */
+    interface Task {
+
+        /**
+         * Stop the task from running, if it has not run yet
+         */
+        void cancel();
+    }
+
+    /**
+     * Get the time
+     * @return the time in milliseconds, only meaningful compared to other times from the same clock
+     */
+    long now();
+
+    /**
+     * Run a task once a delay has passed
+     * @param task the task
+     * @param delay the delay in milliseconds
+     * @return the scheduled task, which can be cancelled
+     */
+    Task schedule(Runnable task, long delay);
+
+    /**
+     * Get the clock shared by every game played in real time
+     * @return the real time clock
+     */
+    static GameClock realTime() {
+        return RealTimeClock.SHARED;
+    }
+}
@@ -0,0 +1,14 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A GameCommand is a change to a game, run by a GameActor on its own thread with sole access to the engine.
+ */
+@FunctionalInterface
+public interface GameCommand {
+
+    /**
+     * Make the change
+     * @param engine the engine of the game
+     */
+    void execute(GameEngine engine);
+}
@@ -0,0 +1,493 @@
+package uk.ac.soton.comp1206.game;
+
+import uk.ac.soton.comp1206.event.GameActionListener;
+import uk.ac.soton.comp1206.event.GameEvent;
+import uk.ac.soton.comp1206.event.GameEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The GameEngine holds the rules and state of the TetrECS game with no JavaFX, audio or threading attached, so games
+ * can be simulated headless at full speed.
+ *
+ * Everything that happens to the game is published as a stream of GameEvents. The Game class adapts the engine to
+ * the scenes, properties and Multimedia of the user interface.
+ */
+public class GameEngine {
+
+    /**
+     * Number of rows
+     */
+    private final int rows;
+
+    /**
+     * Number of columns
+     */
+    private final int cols;
+
+    /**
+     * The grid model linked to the game
+     */
+    private final Grid grid;
+
+    /**
+     * The rows, columns and blocks cleared by the last placement, reused for every placement
+     */
+    private final ClearResult clearResult;
+
+    /**
+     * Listeners following the events of this game
+     */
+    private final List<GameEventListener> listeners = new ArrayList<>();
+
+    /**
+     * Listeners following the actions made on this game
+     */
+    private final List<GameActionListener> actionListeners = new ArrayList<>();
+
+    /**
+     * The seeded sequence of pieces the engine was created with
+     */
+    private final PieceSequence pieceSequence;
+
+    /**
+     * Where new pieces come from, the piece sequence unless set
+     */
+    private PieceSource pieceSource;
+
+    //the current and next piece of the game
+    private GamePiece currentPiece;
+    private GamePiece followingPiece;
+
+    //the score, level, lives and multiplier of the game
+    private int score = 0;
+    private int level = 0;
+    private int lives = 3;
+    private int multiplier = 1;
+
+    private boolean gameOver = false;
+
+    /**
+     * Number of previews running, while which no events are published and no actions recorded
+     */
+    private int previewing = 0;
+
+    /**
+     * Create a new game engine with the specified rows and columns and a random seed. Creates a corresponding grid
+     * model.
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public GameEngine(int cols, int rows) {
+        this(cols, rows, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Create a new game engine with the specified rows and columns, dealing uniformly random pieces from a seed
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param seed the seed of the pieces
+     */
+    public GameEngine(int cols, int rows, long seed) {
+        this(cols, rows, new PieceSequence(seed));
+    }
+
+    /**
+     * Create a new game engine with the specified rows and columns, dealing pieces from the given sequence
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param pieceSequence the sequence of pieces, used by this engine only
+     */
+    public GameEngine(int cols, int rows, PieceSequence pieceSequence) {
+        this.cols = cols;
+        this.rows = rows;
+        this.grid = new Grid(cols, rows);
+        this.clearResult = new ClearResult(cols, rows);
+        this.pieceSequence = pieceSequence;
+        this.pieceSource = pieceSequence;
+    }
+
+    /**
+     * Add a listener to the events of this game
+     * @param listener the listener to add
+     */
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener from the events of this game
+     * @param listener the listener to remove
+     */
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Publish an event to every listener
+     * @param event the event
+     */
+    private void publish(GameEvent event) {
+        if (previewing > 0) return;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).gameEvent(event);
+        }
+    }
+
+    /**
+     * Add a listener to the actions made on this game
+     * @param listener the listener to add
+     */
+    public void addActionListener(GameActionListener listener) {
+        actionListeners.add(listener);
+    }
+
+    /**
+     * Remove a listener from the actions made on this game
+     * @param listener the listener to remove
+     */
+    public void removeActionListener(GameActionListener listener) {
+        actionListeners.remove(listener);
+    }
+
+    /**
+     * Pass an action on to every action listener
+     * @param action the action
+     * @param x x coordinate of the piece for placements
+     * @param y y coordinate of the piece for placements
+     * @param rotation the number of rotations for rotations
+     */
+    private void record(GameAction action, int x, int y, int rotation) {
+        if (previewing > 0) return;
+        for (int i = 0; i < actionListeners.size(); i++) {
+            actionListeners.get(i).gameAction(action, x, y, rotation);
+        }
+    }
+
+    /**
+     * Spawn the first pieces, the following piece then the current piece
+     */
+    public void initialisePieces() {
+        followingPiece = spawnPiece();
+        nextPiece();
+    }
+
+    /**
+     * Handle a block being clicked, which places the current piece centred on that block
+     * @param x column of the clicked block
+     * @param y row of the clicked block
+     * @return true if the piece was placed
+     */
+    public boolean blockClicked(int x, int y) {
+        //the piece is placed on its centre, so its 3x3 grid starts one block up and left
+        return placePiece(x - 1, y - 1);
+    }
+
+    /**
+     * Place the current piece with the top left of its 3x3 grid at the given position, then move on to the next
+     * piece and clear any full lines. Nothing happens once the game is over
+     * @param x x coordinate of the piece
+     * @param y y coordinate of the piece
+     * @return true if the piece was placed
+     */
+    public boolean placePiece(int x, int y) {
+        if (gameOver) return false;
+        record(GameAction.PLACE, x, y, 0);
+        GamePiece placedPiece = currentPiece;
+
+        //the placement and the lines it clears reach the grid listeners as one change
+        grid.beginBatch();
+        try {
+            //if the piece cannot be placed it's not placed
+            if (!grid.playPiece(placedPiece, x, y)) {
+                publish(GameEvent.PLACEMENT_FAILED);
+                return false;
+            }
+
+            nextPiece();
+            afterPiece(placedPiece, x, y);
+        } finally {
+            grid.commitBatch();
+        }
+        publish(GameEvent.PIECE_PLACED);
+        return true;
+    }
+
+    /**
+     * spawns a piece from the piece source
+     * @return the spawned piece
+     */
+    public GamePiece spawnPiece() {
+        return pieceSource.spawnPiece();
+    }
+
+    /**
+     * fetches the next piece of the game
+     * @return the new current piece
+     */
+    public GamePiece nextPiece() {
+        //the current piece is set to the next piece and the next piece is spawned
+        currentPiece = followingPiece;
+        followingPiece = spawnPiece();
+        publish(GameEvent.NEXT_PIECE);
+        return currentPiece;
+    }
+
+    /**
+     * clears the full lines touched by a placed piece and updates the multiplier, score and level
+     * @param piece the piece that was placed
+     * @param x x coordinate the piece was placed at
+     * @param y y coordinate the piece was placed at
+     */
+    public void afterPiece(GamePiece piece, int x, int y) {
+        int linesCleared = grid.clearLines(piece, x, y, clearResult);
+
+        //the multiplier goes up while lines keep being cleared, and is reset when nothing is cleared
+        if (linesCleared == 0) {
+            multiplier = 1;
+        } else {
+            multiplier++;
+        }
+
+        score(linesCleared, clearResult.getBlocks());
+
+        if (linesCleared > 0) {
+            publish(GameEvent.LINES_CLEARED);
+        }
+
+        //the level goes up every 1000 points
+        level = score / 1000;
+    }
+
+    /**
+     * calculates the score of the game with the calculation,
+     * lines cleared * blocks cleared * multiplier * 10
+     * @param linesCleared the lines cleared
+     * @param blocksCleared the blocks cleared
+     */
+    public void score(int linesCleared, int blocksCleared) {
+        score += linesCleared * blocksCleared * 10 * multiplier;
+    }
+
+    /**
+     * rotates the current piece once
+     */
+    public void rotatePiece() {
+        rotatePiece(1);
+    }
+
+    /**
+     * rotates the current piece the given number of times, unless the game is over
+     * @param rotations the number of rotations
+     */
+    public void rotatePiece(int rotations) {
+        if (gameOver) return;
+        record(GameAction.ROTATE, 0, 0, rotations & 3);
+        currentPiece = currentPiece.rotated(rotations);
+        publish(GameEvent.PIECE_ROTATED);
+    }
+
+    /**
+     * swaps the current piece with the next one and vice versa, unless the game is over
+     */
+    public void swapCurrentPiece() {
+        if (gameOver) return;
+        record(GameAction.SWAP, 0, 0, 0);
+        GamePiece piece = currentPiece;
+        currentPiece = followingPiece;
+        followingPiece = piece;
+        publish(GameEvent.PIECES_SWAPPED);
+    }
+
+    /**
+     * Handle the game timer running out. A life is lost and the piece is discarded, or the game ends if there are no
+     * lives left
+     * @return true if the game carries on
+     */
+    public boolean timeout() {
+        if (gameOver) return false;
+        record(GameAction.TIMEOUT, 0, 0, 0);
+
+        if (lives == 0) {
+            gameOver = true;
+            publish(GameEvent.GAME_OVER);
+            return false;
+        }
+
+        lives--;
+        multiplier = 1;
+        publish(GameEvent.LIFE_LOST);
+        nextPiece();
+        return true;
+    }
+
+    /**
+     * Checks whether the current or the following piece can still be placed anywhere on the grid
+     * @return true if a legal placement is left
+     */
+    public boolean hasAvailableMove() {
+        MoveGenerator moves = MoveGenerator.of(grid);
+        return moves.hasMove(grid, currentPiece.getType()) || moves.hasMove(grid, followingPiece.getType());
+    }
+
+    /**
+     * Get the Zobrist hash of the grid and the current and following pieces, for searches to recognise positions
+     * they have seen before
+     * @return the hash of the state
+     */
+    public long getStateHash() {
+        return Zobrist.hash(grid, currentPiece, followingPiece);
+    }
+
+    /**
+     * Take an immutable snapshot of the state of the game, for undo, searches and previews
+     * @return the snapshot
+     */
+    public GameState snapshot() {
+        return new GameState(this);
+    }
+
+    /**
+     * Put the game back to a snapshot taken from an engine of the same size. The grid listeners hear the changed
+     * blocks as one batch, no game events are published and no actions recorded, and the piece sequence goes back to
+     * where it was so the same pieces are dealt again
+     * @param state the snapshot
+     */
+    public void restore(GameState state) {
+        grid.restore(state.getBoard());
+        pieceSequence.rewind(state.getDealt());
+        currentPiece = state.getCurrentPiece();
+        followingPiece = state.getFollowingPiece();
+        score = state.getScore();
+        level = state.getLevel();
+        lives = state.getLives();
+        multiplier = state.getMultiplier();
+        gameOver = state.isGameOver();
+    }
+
+    /**
+     * Try out some moves and put the game back as it was. No game events are published and no actions recorded
+     * while the moves are made, though the grid listeners hear the blocks change and change back
+     * @param moves the moves to try
+     * @return the state the moves reached
+     */
+    public GameState preview(GameCommand moves) {
+        GameState before = snapshot();
+        previewing++;
+        try {
+            moves.execute(this);
+            return snapshot();
+        } finally {
+            previewing--;
+            restore(before);
+        }
+    }
+
+    /**
+     * calculates the time the player has to place a piece, which gets shorter as the level goes up
+     * @return the time in milliseconds, at least 2500
+     */
+    public int getTimeDelay() {
+        return Math.max(12000 - (500 * level), 2500);
+    }
+
+    /**
+     * Set where new pieces come from
+     * @param pieceSource the piece source
+     */
+    public void setPieceSource(PieceSource pieceSource) {
+        this.pieceSource = pieceSource;
+    }
+
+    /**
+     * Get the seeded sequence of pieces the engine was created with, which deals the pieces unless another piece
+     * source was set
+     * @return the piece sequence
+     */
+    public PieceSequence getPieceSequence() {
+        return pieceSequence;
+    }
+
+    /**
+     * Get where new pieces come from
+     * @return the piece source
+     */
+    public PieceSource getPieceSource() {
+        return pieceSource;
+    }
+
+    /**
+     * Get the grid model of this game
+     * @return game grid model
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Get the lines and blocks cleared by the last placement
+     * @return the clear result, reused by the next placement
+     */
+    public ClearResult getClearResult() {
+        return clearResult;
+    }
+
+    /**
+     * Get the number of columns in this game
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows in this game
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the current piece of the game
+     * @return the current piece
+     */
+    public GamePiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    /**
+     * Get the next piece of the game
+     * @return the next piece
+     */
+    public GamePiece getFollowingPiece() {
+        return followingPiece;
+    }
+
+    /**
+     * Getter methods for the score, level, lives and multiplier
+     * @return the respective value
+     */
+    public int getScore() {
+        return score;
+    }
+    public int getLevel() {
+        return level;
+    }
+    public int getLives() {
+        return lives;
+    }
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Checks whether the game has ended
+     * @return true once the timer ran out with no lives left
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}
@@ -0,0 +1,121 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A GameHistory keeps the snapshots of a game for undo and redo.
+ *
+ * The snapshots form a chain with a cursor on the current one, so undo and redo only move the cursor and restore the
+ * snapshot it lands on. Recording a new snapshot after an undo drops the ones that could have been redone. The oldest
+ * snapshots are forgotten once the history holds its limit.
+ */
+public class GameHistory {
+
+    /**
+     * A link in the chain of snapshots
+     */
+    private static final class Entry {
+        private final GameState state;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(GameState state) {
+            this.state = state;
+        }
+    }
+
+    /**
+     * The engine the history belongs to
+     */
+    private final GameEngine engine;
+
+    /**
+     * Most snapshots kept, counting the current one
+     */
+    private final int limit;
+
+    /**
+     * The oldest snapshot kept and the snapshot the game is at
+     */
+    private Entry oldest;
+    private Entry current;
+
+    /**
+     * Number of snapshots from the oldest up to the current one
+     */
+    private int size;
+
+    /**
+     * Create a history which starts from the present state of an engine
+     * @param engine the engine
+     * @param limit the most snapshots kept, at least 1
+     */
+    public GameHistory(GameEngine engine, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be at least 1");
+        this.engine = engine;
+        this.limit = limit;
+        this.current = new Entry(engine.snapshot());
+        this.oldest = current;
+        this.size = 1;
+    }
+
+    /**
+     * Record the present state of the engine as the newest snapshot, usually after each move
+     */
+    public void record() {
+        Entry entry = new Entry(engine.snapshot());
+        entry.previous = current;
+        //anything that could have been redone is lost
+        current.next = entry;
+        current = entry;
+
+        if (++size > limit) {
+            oldest = oldest.next;
+            oldest.previous = null;
+            size--;
+        }
+    }
+
+    /**
+     * Put the engine back to the previous snapshot
+     * @return false if there was nothing to undo
+     */
+    public boolean undo() {
+        if (current.previous == null) return false;
+        current = current.previous;
+        size--;
+        engine.restore(current.state);
+        return true;
+    }
+
+    /**
+     * Put the engine forward to the snapshot last undone
+     * @return false if there was nothing to redo
+     */
+    public boolean redo() {
+        if (current.next == null) return false;
+        current = current.next;
+        size++;
+        engine.restore(current.state);
+        return true;
+    }
+
+    /**
+     * @return true if there is a snapshot to undo to
+     */
+    public boolean canUndo() {
+        return current.previous != null;
+    }
+
+    /**
+     * @return true if there is a snapshot to redo to
+     */
+    public boolean canRedo() {
+        return current.next != null;
+    }
+
+    /**
+     * @return the snapshot the game is at
+     */
+    public GameState getCurrent() {
+        return current.state;
+    }
+}
@@ -0,0 +1,75 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The GameLoop runs the timer of a headless GameEngine on a GameClock: whenever the time for a piece runs out the
+ * engine loses a life and the timer starts again, until the game is over.
+ *
+ * The engine is touched from the clock's thread, so a real time clock should only be used when nothing else touches
+ * the engine. With a VirtualClock everything happens on the thread advancing the clock.
+ */
+public class GameLoop {
+
+    private final GameEngine engine;
+    private final GameClock clock;
+
+    /**
+     * The timer running now, or null if stopped
+     */
+    private GameClock.Task task;
+
+    /**
+     * Number of times the timer has run out
+     */
+    private long timeouts = 0;
+
+    /**
+     * Create a loop for an engine
+     * @param engine the engine
+     * @param clock the clock timing the loop
+     */
+    public GameLoop(GameEngine engine, GameClock clock) {
+        this.engine = engine;
+        this.clock = clock;
+    }
+
+    /**
+     * Start the timer
+     */
+    public void start() {
+        task = clock.schedule(this::timeout, engine.getTimeDelay());
+    }
+
+    /**
+     * Start the timer again, after a piece was placed
+     */
+    public void reset() {
+        stop();
+        start();
+    }
+
+    /**
+     * Stop the timer
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * @return the number of times the timer has run out
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Run the timer out and start it again if the game carries on
+     */
+    private void timeout() {
+        timeouts++;
+        task = null;
+        if (engine.timeout()) start();
+    }
+}
@@ -3,8 +3,8 @@ package uk.ac.soton.comp1206.game;
 /**
  * Instances of GamePiece Represents the model of a specific Game Piece with it's block makeup.
  *
- * The GamePiece class also contains a factory for producing a GamePiece of a particular shape, as specified by it's
- * number.
+ * A GamePiece is immutable and identified by its piece number and rotation. Every piece is created once by the
+ * PieceCatalogue, so spawning and rotating a piece just looks up another shared instance.
  */
 public class GamePiece {
 
@@ -14,9 +14,35 @@ public class GamePiece {
     public static final int PIECES = 15;
 
     /**
-     * The 2D grid representation of the shape of this piece
+     * The number of distinct rotations of a piece
      */
-    private int[][] blocks;
+    public static final int ROTATIONS = 4;
+
+    /**
+     * The type of this piece, from 0 to PIECES - 1
+     */
+    private final int type;
+
+    /**
+     * The rotation of this piece, from 0 to ROTATIONS - 1
+     */
+    private final int rotation;
+
+    /**
+     * The 2D grid representation of the shape of this piece, shared by every user of the piece
+     */
+    private final int[][] blocks;
+
+    /**
+     * The shape of this piece as a 9 bit mask, bit x * 3 + y is set for every block
+     */
+    private final int mask;
+
+    /**
+     * The x and y offsets of every block of this piece inside its 3x3 grid
+     */
+    private final int[] blockX;
+    private final int[] blockY;
 
     /**
      * The value of this piece
@@ -29,137 +55,59 @@ public class GamePiece {
     private final String name;
 
     /**
-     * Create a new GamePiece of the specified piece number
+     * Get the GamePiece of the specified piece number. Pieces are shared, so this does not create anything.
      * @param piece piece number
-     * @return the created GamePiece
+     * @return the GamePiece
      */
     public static GamePiece createPiece(int piece) {
-        switch (piece) {
-            //Line
-            case 0 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 1}, {0, 0, 0}};
-                return new GamePiece("Line", blocks, 1);
-            }
-
-            //C
-            case 1 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 1}, {1, 0, 1}};
-                return new GamePiece("C", blocks, 2);
-            }
-
-            //Plus
-            case 2 -> {
-                int[][] blocks = {{0, 1, 0}, {1, 1, 1}, {0, 1, 0}};
-                return new GamePiece("Plus", blocks, 3);
-            }
-
-            //Dot
-            case 3 -> {
-                int[][] blocks = {{0, 0, 0}, {0, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Dot", blocks, 4);
-            }
-
-            //Square
-            case 4 -> {
-                int[][] blocks = {{1, 1, 0}, {1, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Square", blocks, 5);
-            }
-
-            //L
-            case 5 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 1}, {0, 0, 1}};
-                return new GamePiece("L", blocks, 6);
-            }
-
-            //J
-            case 6 -> {
-                int[][] blocks = {{0, 0, 1}, {1, 1, 1}, {0, 0, 0}};
-                return new GamePiece("J", blocks, 7);
-            }
-
-            //S
-            case 7 -> {
-                int[][] blocks = {{0, 0, 0}, {0, 1, 1}, {1, 1, 0}};
-                return new GamePiece("S", blocks, 8);
-            }
-
-            //Z
-            case 8 -> {
-                int[][] blocks = {{1, 1, 0}, {0, 1, 1}, {0, 0, 0}};
-                return new GamePiece("Z", blocks, 9);
-            }
-
-            //T
-            case 9 -> {
-                int[][] blocks = {{1, 0, 0}, {1, 1, 0}, {1, 0, 0}};
-                return new GamePiece("T", blocks, 10);
-            }
-
-            //X
-            case 10 -> {
-                int[][] blocks = {{1, 0, 1}, {0, 1, 0}, {1, 0, 1}};
-                return new GamePiece("X", blocks, 11);
-            }
-
-            //Corner
-            case 11 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 0}, {1, 0, 0}};
-                return new GamePiece("Corner", blocks, 12);
-            }
-
-            //Inverse Corner
-            case 12 -> {
-                int[][] blocks = {{1, 0, 0}, {1, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Inverse Corner", blocks, 13);
-            }
-
-            //Diagonal
-            case 13 -> {
-                int[][] blocks = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
-                return new GamePiece("Diagonal", blocks, 14);
-            }
-
-            //Double
-            case 14 -> {
-                int[][] blocks = {{0, 1, 0}, {0, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Double", blocks, 15);
-            }
-        }
-
-        //Not a valid piece number
-        throw new IndexOutOfBoundsException("No such piece: " + piece);
+        return PieceCatalogue.get(piece, 0);
     }
 
     /**
-     * Create a new GamePiece of the specified piece number and rotation
+     * Get the GamePiece of the specified piece number and rotation
      * @param piece piece number
      * @param rotation number of times to rotate
-     * @return the created GamePiece
+     * @return the GamePiece
      */
     public static GamePiece createPiece(int piece, int rotation) {
-        var newPiece = createPiece(piece);
-
-        newPiece.rotate(rotation);
-        return newPiece;
+        return PieceCatalogue.get(piece, rotation);
     }
 
     /**
-     * Create a new GamePiece with the given name, block makeup and value. Should not be called directly, only via the
-     * factory.
+     * Create a new GamePiece from its precomputed tables. Should not be called directly, only by the PieceCatalogue.
+     * @param type piece number
+     * @param rotation rotation of the piece
      * @param name name of the piece
      * @param blocks block makeup of the piece
-     * @param value the value of this piece
      */
-    private GamePiece(String name, int[][] blocks, int value) {
+    GamePiece(int type, int rotation, String name, int[][] blocks) {
+        this.type = type;
+        this.rotation = rotation;
         this.name = name;
         this.blocks = blocks;
-        this.value = value;
+        this.value = type + 1;
 
-        //Use the shape of the block to create a grid with either 0 (empty) or the value of this shape for each block.
-        for(int x = 0; x < blocks.length; x++) {
-            for (int y = 0; y < blocks[x].length; y++) {
-                if(blocks[x][y] == 0) continue;
-                blocks[x][y] = value;
+        //Collect the blocks of the shape into a mask and a list of offsets
+        int shape = 0;
+        int count = 0;
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 3; y++) {
+                if (blocks[x][y] == 0) continue;
+                shape |= 1 << (x * 3 + y);
+                count++;
+            }
+        }
+        this.mask = shape;
+        this.blockX = new int[count];
+        this.blockY = new int[count];
+
+        int i = 0;
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 3; y++) {
+                if (blocks[x][y] == 0) continue;
+                blockX[i] = x;
+                blockY[i] = y;
+                i++;
             }
         }
     }
@@ -173,7 +121,23 @@ public class GamePiece {
     }
 
     /**
-     * Get the block makeup of this piece
+     * Get the piece number of this piece
+     * @return piece number
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Get the rotation of this piece
+     * @return rotation, from 0 to 3
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Get the block makeup of this piece. The array is shared and must not be modified.
      * @return 2D grid of the blocks representing the piece shape
      */
     public int[][] getBlocks() {
@@ -181,35 +145,55 @@ public class GamePiece {
     }
 
     /**
-     * Rotate this piece the given number of rotations
-     * @param rotations number of rotations
+     * Get the shape of this piece as a 9 bit mask
+     * @return mask with bit x * 3 + y set for every block
      */
-    public void rotate(int rotations) {
-        for(int rotated = 0; rotated < rotations; rotated ++) {
-            rotate();
-        }
+    public int getMask() {
+        return mask;
     }
 
     /**
-     * Rotate this piece exactly once by rotating it's 3x3 grid
+     * Get the number of blocks making up this piece
+     * @return number of blocks
      */
-    public void rotate() {
-        int[][] rotated = new int[blocks.length][blocks[0].length];
-        rotated[2][0] = blocks[0][0];
-        rotated[1][0] = blocks[0][1];
-        rotated[0][0] = blocks[0][2];
+    public int getBlockCount() {
+        return blockX.length;
+    }
 
-        rotated[2][1] = blocks[1][0];
-        rotated[1][1] = blocks[1][1];
-        rotated[0][1] = blocks[1][2];
+    /**
+     * Get the x offset of a block of this piece
+     * @param block index of the block
+     * @return column of the block inside the 3x3 grid
+     */
+    public int getBlockX(int block) {
+        return blockX[block];
+    }
 
-        rotated[2][2] = blocks[2][0];
-        rotated[1][2] = blocks[2][1];
-        rotated[0][2] = blocks[2][2];
+    /**
+     * Get the y offset of a block of this piece
+     * @param block index of the block
+     * @return row of the block inside the 3x3 grid
+     */
+    public int getBlockY(int block) {
+        return blockY[block];
+    }
 
-        blocks = rotated;
+    /**
+     * Get this piece rotated the given number of rotations
+     * @param rotations number of rotations
+     * @return the rotated piece
+     */
+    public GamePiece rotated(int rotations) {
+        return PieceCatalogue.get(type, rotation + rotations);
     }
 
+    /**
+     * Get this piece rotated exactly once
+     * @return the rotated piece
+     */
+    public GamePiece rotated() {
+        return PieceCatalogue.get(type, rotation + 1);
+    }
 
     /**
      * Return the string representation of this piece
@@ -0,0 +1,132 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A GameSnapshot is an unchanging copy of the state of a game at one moment, published by a GameActor so other threads
+ * can read the game without touching the engine.
+ */
+public final class GameSnapshot {
+
+    /**
+     * Counts up with every snapshot published by the same actor
+     */
+    private final long version;
+
+    /**
+     * The state of the engine, sharing its blocks with earlier snapshots while the grid is unchanged
+     */
+    private final GameState state;
+
+    private final int timeDelay;
+
+    /**
+     * Copy the state of an engine
+     * @param engine the engine, only touched by the calling thread
+     * @param version the number of the snapshot
+     */
+    GameSnapshot(GameEngine engine, long version) {
+        this.version = version;
+        this.state = engine.snapshot();
+        this.timeDelay = engine.getTimeDelay();
+    }
+
+    /**
+     * @return the number of this snapshot, higher for later snapshots of the same game
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the value of a block
+     * @param x column
+     * @param y row
+     * @return the value
+     */
+    public int get(int x, int y) {
+        return state.getBoard().get(x, y);
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int getCols() {
+        return state.getBoard().getCols();
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRows() {
+        return state.getBoard().getRows();
+    }
+
+    /**
+     * @return the current piece, null before the pieces are dealt
+     */
+    public GamePiece getCurrentPiece() {
+        return state.getCurrentPiece();
+    }
+
+    /**
+     * @return the following piece, null before the pieces are dealt
+     */
+    public GamePiece getFollowingPiece() {
+        return state.getFollowingPiece();
+    }
+
+    /**
+     * @return the score
+     */
+    public int getScore() {
+        return state.getScore();
+    }
+
+    /**
+     * @return the level
+     */
+    public int getLevel() {
+        return state.getLevel();
+    }
+
+    /**
+     * @return the lives left
+     */
+    public int getLives() {
+        return state.getLives();
+    }
+
+    /**
+     * @return the multiplier
+     */
+    public int getMultiplier() {
+        return state.getMultiplier();
+    }
+
+    /**
+     * @return the state of the game, which can be given to GameEngine.restore
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * @return the time the game loop waits at this level in milliseconds
+     */
+    public int getTimeDelay() {
+        return timeDelay;
+    }
+
+    /**
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return state.isGameOver();
+    }
+
+    /**
+     * @return the hash of the board and pieces, see GameEngine.getStateHash, or 0 before the pieces are dealt
+     */
+    public long getStateHash() {
+        return state.getStateHash();
+    }
+}
@@ -0,0 +1,111 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * An immutable snapshot of everything a move can change in a GameEngine: the blocks, the current and following
+ * pieces, score, level, lives, multiplier, whether the game is over and how far through its piece sequence the game
+ * is. Taken with GameEngine.snapshot and put back with GameEngine.restore.
+ *
+ * The blocks are held as a shared BoardState and pieces are the shared GamePieces of the catalogue, so a snapshot
+ * copies nothing but a few numbers unless the blocks changed since the last one. The piece sequence keeps every piece
+ * it has dealt, so the state only holds the number dealt, and a restored game deals the same pieces as before.
+ */
+public final class GameState {
+
+    private final BoardState board;
+    private final GamePiece currentPiece;
+    private final GamePiece followingPiece;
+    private final int score;
+    private final int level;
+    private final int lives;
+    private final int multiplier;
+    private final boolean gameOver;
+    private final long dealt;
+
+    /**
+     * Capture the state of an engine
+     * @param engine the engine
+     */
+    GameState(GameEngine engine) {
+        this.board = engine.getGrid().snapshot();
+        this.currentPiece = engine.getCurrentPiece();
+        this.followingPiece = engine.getFollowingPiece();
+        this.score = engine.getScore();
+        this.level = engine.getLevel();
+        this.lives = engine.getLives();
+        this.multiplier = engine.getMultiplier();
+        this.gameOver = engine.isGameOver();
+        this.dealt = engine.getPieceSequence().getDealt();
+    }
+
+    /**
+     * @return the blocks of the grid
+     */
+    public BoardState getBoard() {
+        return board;
+    }
+
+    /**
+     * @return the current piece, null before the pieces are dealt
+     */
+    public GamePiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    /**
+     * @return the following piece, null before the pieces are dealt
+     */
+    public GamePiece getFollowingPiece() {
+        return followingPiece;
+    }
+
+    /**
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the lives left
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * @return the multiplier
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return the number of pieces dealt from the piece sequence
+     */
+    public long getDealt() {
+        return dealt;
+    }
+
+    /**
+     * Get the Zobrist hash of the board and pieces, as GameEngine.getStateHash would give for this state
+     * @return the hash, or 0 before the pieces are dealt
+     */
+    public long getStateHash() {
+        if (currentPiece == null) return 0;
+        return board.getHash() ^ Zobrist.current(currentPiece.getType()) ^ Zobrist.following(followingPiece.getType());
+    }
+}
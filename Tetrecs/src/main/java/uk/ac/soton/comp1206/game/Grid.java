@@ -1,21 +1,42 @@
 package uk.ac.soton.comp1206.game;
 
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
+import uk.ac.soton.comp1206.event.GridListener;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The Grid is a model which holds the state of a game board. It is made up of a set of Integer values arranged in a 2D
  * arrow, with rows and columns.
  *
- * Each value inside the Grid is an IntegerProperty can be bound to enable modification and display of the contents of
- * the grid.
+ * The grid is stored as a bitboard: a set of occupancy bits, one per block, and a packed colour array holding the
+ * value of each block in 4 bits. Block (x, y) is stored at index x + y * cols, so every row is a run of bits.
  *
- * The Grid contains functions related to modifying the model, for example, placing a piece inside the grid.
+ * The Grid has no JavaFX dependencies so it can be used headless. A JavaFX view of the grid is available through
+ * GridProperties, which listens to the grid and can be bound to a GameBoard for it's display.
+ *
+ * Updates can be grouped into a batch with beginBatch and commitBatch. Listeners then hear nothing until the batch is
+ * committed, and are passed every block the batch changed at once, so a view can repaint once per move.
  *
- * The Grid should be linked to a GameBoard for it's display.
+ * The Grid contains functions related to modifying the model, for example, placing a piece inside the grid.
  */
 public class Grid {
 
+    /**
+     * Number of bits used to store the value of a block
+     */
+    private static final int VALUE_BITS = 4;
+
+    /**
+     * Number of block values stored in each long of the colour array
+     */
+    private static final int VALUES_PER_WORD = 64 / VALUE_BITS;
+
+    /**
+     * Mask of a single block value
+     */
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
     /**
      * The number of columns in this grid
      */
@@ -27,9 +48,49 @@ public class Grid {
     private final int rows;
 
     /**
-     * The grid is a 2D arrow with rows and columns of SimpleIntegerProperties.
+     * The occupancy bits of the grid, one bit per block
+     */
+    private final long[] occupied;
+
+    /**
+     * The values of the blocks in the grid, 4 bits per block
+     */
+    private final long[] colours;
+
+    /**
+     * The number of occupied blocks in each row
+     */
+    private final int[] rowCounts;
+
+    /**
+     * The number of occupied blocks in each column
      */
-    private final SimpleIntegerProperty[][] grid;
+    private final int[] colCounts;
+
+    /**
+     * Zobrist hash of the occupied blocks, updated as blocks are filled and emptied
+     */
+    private long hash;
+
+    /**
+     * Listeners notified when the value of a block changes
+     */
+    private final List<GridListener> listeners = new ArrayList<>();
+
+    /**
+     * Number of batches open, changes are held back from the listeners while above 0
+     */
+    private int batchDepth = 0;
+
+    /**
+     * The blocks changed by the open batch, created with the first batch
+     */
+    private GridChanges changes;
+
+    /**
+     * The last snapshot taken, handed out again until a block changes
+     */
+    private BoardState snapshot;
 
     /**
      * Create a new Grid with the specified number of columns and rows and initialise them
@@ -41,26 +102,134 @@ public class Grid {
         this.cols = cols;
         this.rows = rows;
 
-        //Create the grid itself
-        grid = new SimpleIntegerProperty[cols][rows];
+        //Create the bitboard itself, every block starts empty
+        int cells = cols * rows;
+        occupied = new long[(cells + 63) >>> 6];
+        colours = new long[(cells + VALUES_PER_WORD - 1) / VALUES_PER_WORD];
+        rowCounts = new int[rows];
+        colCounts = new int[cols];
+    }
+
+    /**
+     * Create a copy of this grid with the same blocks and no listeners
+     *
+     * @return the new grid
+     */
+    public Grid copy() {
+        Grid copy = new Grid(cols, rows);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrite the blocks of this grid with the blocks of another grid of the same size. Listeners are not notified,
+     * so this is meant for scratch grids used by searches and simulations.
+     *
+     * @param other the grid to copy
+     */
+    public void copyFrom(Grid other) {
+        System.arraycopy(other.occupied, 0, occupied, 0, occupied.length);
+        System.arraycopy(other.colours, 0, colours, 0, colours.length);
+        System.arraycopy(other.rowCounts, 0, rowCounts, 0, rowCounts.length);
+        System.arraycopy(other.colCounts, 0, colCounts, 0, colCounts.length);
+        hash = other.hash;
+        snapshot = other.snapshot;
+    }
+
+    /**
+     * Take an immutable snapshot of the blocks of the grid. The snapshot is only copied when a block has changed since
+     * the last one was taken, so repeated snapshots of an unchanged grid are free.
+     *
+     * @return the snapshot
+     */
+    public BoardState snapshot() {
+        if (snapshot == null) {
+            snapshot = new BoardState(cols, rows, occupied.clone(), colours.clone(), rowCounts.clone(),
+                colCounts.clone(), hash);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Set every block of the grid back to a snapshot. A grid nobody listens to takes the words and line counts of the
+     * snapshot whole. Otherwise only the words which differ are visited, and the changed blocks are passed to the
+     * listeners as a single batch.
+     *
+     * @param state a snapshot of a grid of the same size
+     */
+    public void restore(BoardState state) {
+        if (state.getCols() != cols || state.getRows() != rows) {
+            throw new IllegalArgumentException("Snapshot is " + state.getCols() + "x" + state.getRows()
+                + ", grid is " + cols + "x" + rows);
+        }
+        if (state == snapshot) return;
 
-        //Add a SimpleIntegerProperty to every block in the grid
-        for (var y = 0; y < rows; y++) {
-            for (var x = 0; x < cols; x++) {
-                grid[x][y] = new SimpleIntegerProperty(0);
+        //with nobody listening, the words and line counts are taken whole
+        if (listeners.isEmpty()) {
+            for (int word = 0; word < colours.length; word++) colours[word] = state.getColourWord(word);
+            for (int word = 0; word < occupied.length; word++) occupied[word] = state.getOccupancyWord(word);
+            state.copyCounts(rowCounts, colCounts);
+            hash = state.getHash();
+            snapshot = state;
+            return;
+        }
+
+        beginBatch();
+        for (int word = 0; word < colours.length; word++) {
+            long diff = colours[word] ^ state.getColourWord(word);
+            while (diff != 0) {
+                int cell = Long.numberOfTrailingZeros(diff) / VALUE_BITS;
+                int index = word * VALUES_PER_WORD + cell;
+                setBlock(index % cols, index / cols, state.value(index));
+                diff &= ~(VALUE_MASK << (cell * VALUE_BITS));
             }
         }
+        commitBatch();
+        snapshot = state;
     }
 
     /**
-     * Get the Integer property contained inside the grid at a given row and column index. Can be used for binding.
+     * Add a listener to be notified whenever the value of a block changes
      *
-     * @param x column
-     * @param y row
-     * @return the IntegerProperty at the given x and y in this grid
+     * @param listener the listener to add
      */
-    public IntegerProperty getGridProperty(int x, int y) {
-        return grid[x][y];
+    public void addListener(GridListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a previously added listener
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(GridListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start a batch of updates. Listeners are not notified of changes until the batch is committed. Batches can be
+     * nested, in which case the changes are passed on when the outermost batch is committed.
+     */
+    public void beginBatch() {
+        if (batchDepth++ == 0 && changes == null) {
+            changes = new GridChanges(cols, rows);
+        }
+    }
+
+    /**
+     * Commit a batch of updates, passing every block it changed to the listeners at once
+     */
+    public void commitBatch() {
+        if (batchDepth == 0) throw new IllegalStateException("No batch to commit");
+        if (--batchDepth > 0) return;
+
+        changes.resolve(this);
+        if (changes.size() > 0) {
+            for (GridListener listener : listeners) {
+                listener.cellsChanged(changes);
+            }
+        }
+        changes.reset();
     }
 
     /**
@@ -68,33 +237,174 @@ public class Grid {
      *
      * @param x     column
      * @param y     row
-     * @param value the new value
+     * @param value the new value, from 0 (empty) to 15
      */
     public void set(int x, int y, int value) {
-        grid[x][y].set(value);
+        if (x < 0 || y < 0 || x >= cols || y >= rows) {
+            throw new IndexOutOfBoundsException(
+                "Block " + x + "," + y + " is outside the " + cols + "x" + rows + " grid");
+        }
+        if (value < 0 || value > VALUE_MASK) {
+            throw new IllegalArgumentException("Block values go from 0 to " + VALUE_MASK + ", not " + value);
+        }
+        setBlock(x, y, value);
+    }
+
+    /**
+     * Update the value of a block without checking the position or value, for the grid's own updates whose blocks
+     * are already known to be inside the grid
+     *
+     * @param x     column, inside the grid
+     * @param y     row, inside the grid
+     * @param value the new value, from 0 to 15
+     */
+    void setBlock(int x, int y, int value) {
+        int index = x + y * cols;
+        int word = index / VALUES_PER_WORD;
+        int shift = (index % VALUES_PER_WORD) * VALUE_BITS;
+
+        //nothing to do if the block already holds this value
+        int previous = (int) ((colours[word] >>> shift) & VALUE_MASK);
+        if (previous == value) return;
+
+        boolean wasOccupied = (occupied[index >>> 6] & (1L << index)) != 0;
+        snapshot = null;
+        colours[word] = (colours[word] & ~(VALUE_MASK << shift)) | ((long) value << shift);
+
+        //keep the occupancy bits, the row and column counters and the hash in step with the value
+        if (value == 0) {
+            occupied[index >>> 6] &= ~(1L << index);
+            rowCounts[y]--;
+            colCounts[x]--;
+            hash ^= Zobrist.cell(index);
+        } else if (!wasOccupied) {
+            occupied[index >>> 6] |= 1L << index;
+            rowCounts[y]++;
+            colCounts[x]++;
+            hash ^= Zobrist.cell(index);
+        }
+
+        //only views of the grid register listeners, the headless path skips this entirely
+        if (!listeners.isEmpty()) {
+            if (batchDepth > 0) {
+                changes.touch(index, previous);
+                return;
+            }
+            for (GridListener listener : listeners) {
+                listener.cellChanged(x, y, value);
+            }
+        }
     }
 
+    /**
+     * Empties every block of the grid
+     */
     public void clearGrid() {
+        beginBatch();
         for (int y = 0; y < this.rows; y++) {
             for (int x = 0; x < this.cols; x++)
-                this.grid[x][y].set(0);
+                setBlock(x, y, 0);
         }
+        commitBatch();
     }
-        /**
-         * Get the value represented at the given x and y index within the grid
-         *
-         * @param x column
-         * @param y row
-         * @return the value
-         */
+
+    /**
+     * Get the value represented at the given x and y index within the grid
+     *
+     * @param x column
+     * @param y row
+     * @return the value, or -1 if the position is outside the grid
+     */
     public int get(int x, int y) {
-        try {
-            //Get the value held in the property at the x and y index provided
-            return grid[x][y].get();
-        } catch (ArrayIndexOutOfBoundsException e) {
-            //No such index
-            return -1;
-        }
+        //No such index
+        if (x < 0 || y < 0 || x >= cols || y >= rows) return -1;
+
+        int index = x + y * cols;
+        return (int) ((colours[index / VALUES_PER_WORD] >>> ((index % VALUES_PER_WORD) * VALUE_BITS)) & VALUE_MASK);
+    }
+
+    /**
+     * Checks whether the block at the given x and y index holds a value
+     *
+     * @param x column
+     * @param y row
+     * @return true if the block is inside the grid and not empty
+     */
+    public boolean isOccupied(int x, int y) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) return false;
+
+        int index = x + y * cols;
+        return (occupied[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Get a word of the occupancy bits of the grid. Bit i of word w is set when block w * 64 + i is occupied, where
+     * block (x, y) has index x + y * cols. Grids of up to 64 blocks fit entirely in word 0.
+     *
+     * @param word index of the word
+     * @return the occupancy bits
+     */
+    public long getOccupancyWord(int word) {
+        return occupied[word];
+    }
+
+    /**
+     * Get the number of words holding the occupancy bits of the grid
+     *
+     * @return number of words
+     */
+    public int getOccupancyWords() {
+        return occupied.length;
+    }
+
+    /**
+     * Get the number of occupied blocks in a row
+     *
+     * @param y row
+     * @return number of occupied blocks
+     */
+    public int getRowCount(int y) {
+        return rowCounts[y];
+    }
+
+    /**
+     * Get the number of occupied blocks in a column
+     *
+     * @param x column
+     * @return number of occupied blocks
+     */
+    public int getColCount(int x) {
+        return colCounts[x];
+    }
+
+    /**
+     * Checks whether every block of a row is occupied
+     *
+     * @param y row
+     * @return true if the row is full
+     */
+    public boolean isRowFull(int y) {
+        return rowCounts[y] == cols;
+    }
+
+    /**
+     * Checks whether every block of a column is occupied
+     *
+     * @param x column
+     * @return true if the column is full
+     */
+    public boolean isColFull(int x) {
+        return colCounts[x] == rows;
+    }
+
+    /**
+     * Get the Zobrist hash of the occupied blocks of the grid. The hash is updated as pieces are played and lines are
+     * cleared, so getting it costs nothing
+     *
+     * @return the hash of the blocks
+     */
+    public long getHash() {
+        return hash;
     }
 
     /**
@@ -124,22 +434,17 @@ public class Grid {
      */
     public boolean canPlayPiece(GamePiece gamePiece, int xValue, int yValue) {
 
-        int[][] gridBlocks = gamePiece.getBlocks();
-
-        //nested for loop to iterate through the coordinates of the grid block
-        for (int x = 0; x < gridBlocks.length; x++) {
-            for (int y = 0; y < gridBlocks[x].length; y++) {
-                int blockValue = gridBlocks[x][y];
-
-                if (blockValue != 0) {
-                    //gets the grid value of the positions of x,y plus the x,y values given
-                    int gridValue = get(x + xValue, y + yValue);
-                    //if the gridValue is not equal to 0 there's no space available to place a piece
-                    if (gridValue != 0) {
-                        return false;
-                    }
-                }
-            }
+        //iterate through the blocks that make up the piece
+        for (int i = 0; i < gamePiece.getBlockCount(); i++) {
+            int gridX = gamePiece.getBlockX(i) + xValue;
+            int gridY = gamePiece.getBlockY(i) + yValue;
+
+            //the block has to land inside the grid
+            if (gridX < 0 || gridY < 0 || gridX >= cols || gridY >= rows) return false;
+
+            //if the block is already occupied there's no space available to place a piece
+            int index = gridX + gridY * cols;
+            if ((occupied[index >>> 6] & (1L << index)) != 0) return false;
         }
         return true;
     }
@@ -152,23 +457,76 @@ public class Grid {
      * @return true if the piece can be placed false if not
      */
     public boolean playPiece(GamePiece gamePiece, int xValue, int yValue) {
-        int[][] gridBlocks = gamePiece.getBlocks();
         //if the piece cannot be played then the method returns false
         if (!canPlayPiece(gamePiece, xValue, yValue))
             return false;
-        else {
-            for (int x = 0; x < gridBlocks.length; x++) {
-                for (int y = 0; y < gridBlocks[x].length; y++) {
-                    int blockValue = gridBlocks[x][y];
-
-                    if (blockValue != 0){
-                        set(x + xValue , y + yValue , blockValue);
-                    }
-                }
-            }
+
+        int value = gamePiece.getValue();
+        beginBatch();
+        for (int i = 0; i < gamePiece.getBlockCount(); i++) {
+            setBlock(gamePiece.getBlockX(i) + xValue, gamePiece.getBlockY(i) + yValue, value);
         }
+        commitBatch();
 
         return true;
     }
 
-}
\ No newline at end of file
+    /**
+     * clears the rows and columns that became full when a piece was placed.
+     * Only the rows and columns touched by the piece can have become full, so only those are checked
+     * @param gamePiece the piece that was placed
+     * @param xValue x coordinate the piece was placed at
+     * @param yValue y coordinate the piece was placed at
+     * @param result the result to fill with the cleared lines and blocks, reset first
+     * @return the number of lines cleared
+     */
+    public int clearLines(GamePiece gamePiece, int xValue, int yValue, ClearResult result) {
+        result.reset();
+
+        //the rows and columns of the 3x3 piece grid that hold a block, as 3 bit masks
+        int touchedRows = 0;
+        int touchedCols = 0;
+        for (int i = 0; i < gamePiece.getBlockCount(); i++) {
+            touchedCols |= 1 << gamePiece.getBlockX(i);
+            touchedRows |= 1 << gamePiece.getBlockY(i);
+        }
+
+        //full rows and columns are found before anything is cleared so a row and a column
+        //sharing a block are both removed
+        int fullRows = 0;
+        int fullCols = 0;
+        for (int i = 0; i < 3; i++) {
+            if ((touchedRows & (1 << i)) != 0 && isRowFull(yValue + i)) fullRows |= 1 << i;
+            if ((touchedCols & (1 << i)) != 0 && isColFull(xValue + i)) fullCols |= 1 << i;
+        }
+        if (fullRows == 0 && fullCols == 0) return 0;
+
+        beginBatch();
+        //removes rows that have full blocks in them
+        for (int i = 0; i < 3; i++) {
+            if ((fullRows & (1 << i)) == 0) continue;
+            int y = yValue + i;
+            result.addRow(y);
+            for (int x = 0; x < cols; x++) {
+                result.addCell(x, y);
+                setBlock(x, y, 0);
+            }
+        }
+
+        //removes columns that have full blocks in them, blocks shared with a cleared row are already empty
+        for (int i = 0; i < 3; i++) {
+            if ((fullCols & (1 << i)) == 0) continue;
+            int x = xValue + i;
+            result.addCol(x);
+            for (int y = 0; y < rows; y++) {
+                if (result.isRowCleared(y)) continue;
+                result.addCell(x, y);
+                setBlock(x, y, 0);
+            }
+        }
+        commitBatch();
+
+        return result.getLines();
+    }
+
+}
@@ -0,0 +1,117 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The blocks of a Grid changed by a batch of updates, with their new values. A block changed several times in the
+ * batch appears once, and a block changed back to its old value does not appear at all.
+ *
+ * The grid reuses the same GridChanges for every batch, so listeners must read it before returning and not keep it.
+ */
+public class GridChanges {
+
+    /**
+     * The number of columns of the grid
+     */
+    private final int cols;
+
+    /**
+     * The indexes of the changed blocks, x + y * cols
+     */
+    private final int[] cells;
+
+    /**
+     * The values of the changed blocks, before the batch while it is open and after it once committed
+     */
+    private final int[] values;
+
+    /**
+     * One bit per block, set for blocks already in the batch
+     */
+    private final long[] touched;
+
+    /**
+     * Number of changed blocks
+     */
+    private int count = 0;
+
+    /**
+     * Create an empty set of changes for a grid of the given size
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    GridChanges(int cols, int rows) {
+        this.cols = cols;
+        this.cells = new int[cols * rows];
+        this.values = new int[cols * rows];
+        this.touched = new long[(cols * rows + 63) >>> 6];
+    }
+
+    /**
+     * Note a block about to change, keeping its value from before the batch the first time
+     * @param index index of the block
+     * @param previous the value of the block before this change
+     */
+    void touch(int index, int previous) {
+        long bit = 1L << index;
+        if ((touched[index >>> 6] & bit) != 0) return;
+        touched[index >>> 6] |= bit;
+        cells[count] = index;
+        values[count] = previous;
+        count++;
+    }
+
+    /**
+     * Replace the old values with the values of the blocks now, dropping blocks that ended up unchanged
+     * @param grid the grid the changes were made to
+     */
+    void resolve(Grid grid) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int index = cells[i];
+            touched[index >>> 6] &= ~(1L << index);
+            int value = grid.get(index % cols, index / cols);
+            if (value == values[i]) continue;
+            cells[kept] = index;
+            values[kept] = value;
+            kept++;
+        }
+        count = kept;
+    }
+
+    /**
+     * Forget every change, ready for the next batch
+     */
+    void reset() {
+        count = 0;
+    }
+
+    /**
+     * @return the number of changed blocks
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param i position in the changes
+     * @return the column of the changed block
+     */
+    public int getX(int i) {
+        return cells[i] % cols;
+    }
+
+    /**
+     * @param i position in the changes
+     * @return the row of the changed block
+     */
+    public int getY(int i) {
+        return cells[i] / cols;
+    }
+
+    /**
+     * @param i position in the changes
+     * @return the new value of the changed block
+     */
+    public int getValue(int i) {
+        return values[i];
+    }
+}
@@ -0,0 +1,63 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+/**
+ * The GridProperties class is an opt-in JavaFX view of a Grid. It holds an IntegerProperty for every block of the grid
+ * and keeps them in sync with the grid, so they can be bound to the GameBlocks of a GameBoard.
+ *
+ * Only the visual components create this view, the game model itself never touches properties.
+ */
+public class GridProperties {
+
+    /**
+     * The grid this view represents
+     */
+    private final Grid grid;
+
+    /**
+     * The properties of the blocks as a 2D arrow with columns and rows
+     */
+    private final SimpleIntegerProperty[][] properties;
+
+    /**
+     * Create a new property view of the given grid, initialised to its current contents
+     *
+     * @param grid the grid to view
+     */
+    public GridProperties(Grid grid) {
+        this.grid = grid;
+        properties = new SimpleIntegerProperty[grid.getCols()][grid.getRows()];
+
+        //Add a SimpleIntegerProperty to every block in the grid
+        for (var y = 0; y < grid.getRows(); y++) {
+            for (var x = 0; x < grid.getCols(); x++) {
+                properties[x][y] = new SimpleIntegerProperty(grid.get(x, y));
+            }
+        }
+
+        //the properties follow every change made to the grid
+        grid.addListener((x, y, value) -> properties[x][y].set(value));
+    }
+
+    /**
+     * Get the Integer property for a given row and column index. Can be used for binding.
+     *
+     * @param x column
+     * @param y row
+     * @return the IntegerProperty at the given x and y
+     */
+    public IntegerProperty getGridProperty(int x, int y) {
+        return properties[x][y];
+    }
+
+    /**
+     * Get the grid this view represents
+     *
+     * @return the grid
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+}
@@ -0,0 +1,348 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The MoveGenerator finds every legal placement of a piece on a grid, across all its rotations, in one pass.
+ *
+ * A move is packed into an int holding the x and y coordinates of the top left of the piece's 3x3 grid (the
+ * coordinates Grid.playPiece takes) and the rotation. Rotations that only repeat the shape of a lower rotation are
+ * skipped, so every move returned covers a different set of blocks.
+ *
+ * For grids of up to 64 blocks every placement of every piece is precomputed as a mask over the grid's occupancy
+ * word, so checking a placement is a single AND. Larger grids check placements block by block.
+ *
+ * Generators are immutable and shared per grid size, so they can be used from several threads at once.
+ */
+public class MoveGenerator {
+
+    /**
+     * Generators already built, keyed by grid size
+     */
+    private static final ConcurrentHashMap<Long, MoveGenerator> GENERATORS = new ConcurrentHashMap<>();
+
+    /**
+     * Number of bits used by each coordinate of a packed move
+     */
+    private static final int COORDINATE_BITS = 12;
+
+    /**
+     * Mask of a single coordinate of a packed move
+     */
+    private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+
+    /**
+     * Number of columns of the grids this generator handles
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the grids this generator handles
+     */
+    private final int rows;
+
+    /**
+     * For small grids, the occupancy mask of every placement, indexed by piece number
+     */
+    private final long[][] placementMasks;
+
+    /**
+     * For small grids, the packed move of every placement, in step with placementMasks
+     */
+    private final int[][] placementMoves;
+
+    /**
+     * Get the generator for grids of the given size
+     * @param cols number of columns
+     * @param rows number of rows
+     * @return the shared generator
+     */
+    public static MoveGenerator of(int cols, int rows) {
+        return GENERATORS.computeIfAbsent(((long) cols << 32) | rows, key -> new MoveGenerator(cols, rows));
+    }
+
+    /**
+     * Get the generator for the given grid
+     * @param grid the grid
+     * @return the shared generator for grids of that size
+     */
+    public static MoveGenerator of(Grid grid) {
+        return of(grid.getCols(), grid.getRows());
+    }
+
+    /**
+     * Create a new generator for grids of the given size
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    private MoveGenerator(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+
+        if (cols * rows > 64) {
+            placementMasks = null;
+            placementMoves = null;
+            return;
+        }
+
+        placementMasks = new long[GamePiece.PIECES][];
+        placementMoves = new int[GamePiece.PIECES][];
+        long[] masks = new long[GamePiece.ROTATIONS * (cols + 2) * (rows + 2)];
+        int[] moves = new int[masks.length];
+
+        for (int type = 0; type < GamePiece.PIECES; type++) {
+            int count = 0;
+            for (int rotation = 0; rotation < GamePiece.ROTATIONS; rotation++) {
+                if (!PieceCatalogue.isDistinctRotation(type, rotation)) continue;
+                GamePiece piece = PieceCatalogue.get(type, rotation);
+
+                for (int y = -2; y < rows; y++) {
+                    for (int x = -2; x < cols; x++) {
+                        long mask = placementMask(piece, x, y);
+                        if (mask == 0) continue;
+                        masks[count] = mask;
+                        moves[count] = pack(x, y, rotation);
+                        count++;
+                    }
+                }
+            }
+            placementMasks[type] = Arrays.copyOf(masks, count);
+            placementMoves[type] = Arrays.copyOf(moves, count);
+        }
+    }
+
+    /**
+     * Work out the occupancy mask covered by a placement
+     * @param piece the piece
+     * @param x x coordinate of the piece
+     * @param y y coordinate of the piece
+     * @return the mask, or 0 if part of the piece falls outside the grid
+     */
+    private long placementMask(GamePiece piece, int x, int y) {
+        long mask = 0;
+        for (int i = 0; i < piece.getBlockCount(); i++) {
+            int gridX = x + piece.getBlockX(i);
+            int gridY = y + piece.getBlockY(i);
+            if (gridX < 0 || gridY < 0 || gridX >= cols || gridY >= rows) return 0;
+            mask |= 1L << (gridX + gridY * cols);
+        }
+        return mask;
+    }
+
+    /**
+     * Create an array large enough to hold every move of any piece on grids of this size
+     * @return a new move buffer
+     */
+    public int[] newMoveBuffer() {
+        return new int[GamePiece.ROTATIONS * (cols + 2) * (rows + 2)];
+    }
+
+    /**
+     * Find every legal placement of a piece on a grid
+     * @param grid the grid, which must have the size of this generator
+     * @param piece the piece, its rotation does not matter
+     * @param moves buffer to write the packed moves into, see newMoveBuffer
+     * @return the number of moves written
+     */
+    public int generate(Grid grid, GamePiece piece, int[] moves) {
+        return generate(grid, piece.getType(), moves);
+    }
+
+    /**
+     * Find every legal placement of a piece on a grid
+     * @param grid the grid, which must have the size of this generator
+     * @param type piece number
+     * @param moves buffer to write the packed moves into, see newMoveBuffer
+     * @return the number of moves written
+     */
+    public int generate(Grid grid, int type, int[] moves) {
+        if (placementMasks != null) {
+            return generate(grid.getOccupancyWord(0), type, moves);
+        }
+
+        int count = 0;
+        for (int rotation = 0; rotation < GamePiece.ROTATIONS; rotation++) {
+            if (!PieceCatalogue.isDistinctRotation(type, rotation)) continue;
+            GamePiece piece = PieceCatalogue.get(type, rotation);
+            for (int y = -2; y < rows; y++) {
+                for (int x = -2; x < cols; x++) {
+                    if (grid.canPlayPiece(piece, x, y)) moves[count++] = pack(x, y, rotation);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Find every legal placement of a piece on a grid of up to 64 blocks, given as its occupancy bits
+     * @param occupancy the occupancy word of the grid
+     * @param type piece number
+     * @param moves buffer to write the packed moves into, see newMoveBuffer
+     * @return the number of moves written
+     */
+    public int generate(long occupancy, int type, int[] moves) {
+        long[] masks = placementMasks[type];
+        int[] packed = placementMoves[type];
+        int count = 0;
+        for (int i = 0; i < masks.length; i++) {
+            if ((occupancy & masks[i]) == 0) moves[count++] = packed[i];
+        }
+        return count;
+    }
+
+    /**
+     * Count the legal placements of a piece on a grid
+     * @param grid the grid, which must have the size of this generator
+     * @param type piece number
+     * @return the number of legal moves
+     */
+    public int count(Grid grid, int type) {
+        if (placementMasks != null) {
+            return count(grid.getOccupancyWord(0), type);
+        }
+
+        int count = 0;
+        for (int rotation = 0; rotation < GamePiece.ROTATIONS; rotation++) {
+            if (!PieceCatalogue.isDistinctRotation(type, rotation)) continue;
+            GamePiece piece = PieceCatalogue.get(type, rotation);
+            for (int y = -2; y < rows; y++) {
+                for (int x = -2; x < cols; x++) {
+                    if (grid.canPlayPiece(piece, x, y)) count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the legal placements of a piece on a grid of up to 64 blocks, given as its occupancy bits
+     * @param occupancy the occupancy word of the grid
+     * @param type piece number
+     * @return the number of legal moves
+     */
+    public int count(long occupancy, int type) {
+        long[] masks = placementMasks[type];
+        int count = 0;
+        for (long mask : masks) {
+            if ((occupancy & mask) == 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a piece can be placed anywhere on a grid, stopping at the first legal placement
+     * @param grid the grid, which must have the size of this generator
+     * @param type piece number
+     * @return true if there is at least one legal move
+     */
+    public boolean hasMove(Grid grid, int type) {
+        if (placementMasks != null) {
+            return hasMove(grid.getOccupancyWord(0), type);
+        }
+
+        for (int rotation = 0; rotation < GamePiece.ROTATIONS; rotation++) {
+            if (!PieceCatalogue.isDistinctRotation(type, rotation)) continue;
+            GamePiece piece = PieceCatalogue.get(type, rotation);
+            for (int y = -2; y < rows; y++) {
+                for (int x = -2; x < cols; x++) {
+                    if (grid.canPlayPiece(piece, x, y)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a piece can be placed anywhere on a grid of up to 64 blocks, given as its occupancy bits
+     * @param occupancy the occupancy word of the grid
+     * @param type piece number
+     * @return true if there is at least one legal move
+     */
+    public boolean hasMove(long occupancy, int type) {
+        for (long mask : placementMasks[type]) {
+            if ((occupancy & mask) == 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether this generator has precomputed placement masks, which it does for grids of up to 64 blocks
+     * @return true if the occupancy word versions of the methods can be used
+     */
+    public boolean isBitboard() {
+        return placementMasks != null;
+    }
+
+    /**
+     * Get the placement masks of a piece, for grids of up to 64 blocks
+     * @param type piece number
+     * @return the occupancy mask of every placement, shared and not to be modified
+     */
+    public long[] getPlacementMasks(int type) {
+        return placementMasks[type];
+    }
+
+    /**
+     * Get the packed moves of a piece, in step with getPlacementMasks
+     * @param type piece number
+     * @return the packed move of every placement, shared and not to be modified
+     */
+    public int[] getPlacementMoves(int type) {
+        return placementMoves[type];
+    }
+
+    /**
+     * Pack a move into an int
+     * @param x x coordinate of the piece, from -2
+     * @param y y coordinate of the piece, from -2
+     * @param rotation rotation of the piece
+     * @return the packed move
+     */
+    public static int pack(int x, int y, int rotation) {
+        return (x + 2) | ((y + 2) << COORDINATE_BITS) | (rotation << (2 * COORDINATE_BITS));
+    }
+
+    /**
+     * Get the x coordinate of a packed move
+     * @param move the packed move
+     * @return x coordinate of the top left of the piece
+     */
+    public static int moveX(int move) {
+        return (move & COORDINATE_MASK) - 2;
+    }
+
+    /**
+     * Get the y coordinate of a packed move
+     * @param move the packed move
+     * @return y coordinate of the top left of the piece
+     */
+    public static int moveY(int move) {
+        return ((move >>> COORDINATE_BITS) & COORDINATE_MASK) - 2;
+    }
+
+    /**
+     * Get the rotation of a packed move
+     * @param move the packed move
+     * @return rotation of the piece
+     */
+    public static int moveRotation(int move) {
+        return move >>> (2 * COORDINATE_BITS);
+    }
+
+    /**
+     * Get the number of columns of the grids this generator handles
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows of the grids this generator handles
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+}
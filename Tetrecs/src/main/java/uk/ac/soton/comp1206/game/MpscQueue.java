@@ -0,0 +1,76 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free queue that any number of threads can add to and a single thread takes from.
+ *
+ * Adding swaps the new node into the tail with one atomic exchange and then links the old tail to it, so producers
+ * never wait on each other or on the consumer. The consumer follows the links from its own head without any atomic
+ * operations. A node whose link has not been written yet reads as the end of the queue until it is.
+ *
+ * @param <E> the type of the elements
+ */
+public class MpscQueue<E> {
+
+    /**
+     * A node of the queue
+     */
+    private static final class Node<E> {
+        private E value;
+        private volatile Node<E> next;
+
+        private Node(E value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * The last node added, shared by the producers
+     */
+    private final AtomicReference<Node<E>> tail;
+
+    /**
+     * The node before the next element, only used by the consumer
+     */
+    private Node<E> head;
+
+    /**
+     * Create an empty queue
+     */
+    public MpscQueue() {
+        Node<E> stub = new Node<>(null);
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Add an element, from any thread
+     * @param value the element, not null
+     */
+    public void offer(E value) {
+        Node<E> node = new Node<>(value);
+        tail.getAndSet(node).next = node;
+    }
+
+    /**
+     * Take the next element, from the consumer thread only
+     * @return the element, or null if the queue is empty
+     */
+    public E poll() {
+        Node<E> next = head.next;
+        if (next == null) return null;
+        E value = next.value;
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    /**
+     * Checks whether there is nothing to take, from the consumer thread only
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+}
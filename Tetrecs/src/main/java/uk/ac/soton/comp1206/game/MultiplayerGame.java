@@ -9,16 +9,10 @@ import uk.ac.soton.comp1206.component.GameBlock;
 import uk.ac.soton.comp1206.network.Communicator;
 
 
-import java.util.ArrayDeque;
-import java.util.LinkedList;
-import java.util.Queue;
-
 public class MultiplayerGame extends Game {
     private static final Logger logger = LogManager.getLogger(MultiplayerGame.class);
     private Communicator communicator;
 
-    //linked list that stores the queued pieces
-    private Queue<GamePiece> pieceQueue = new LinkedList<>();
     //checks whether the first pieces were placed
     protected boolean initialisedPieces = false;
     /**
@@ -28,7 +22,8 @@ public class MultiplayerGame extends Game {
      * @param rows number of rows
      */
     public MultiplayerGame(int cols, int rows, Communicator communicator) {
-        super(cols, rows);
+        //the pieces are decided by the server and fed into the piece sequence as they arrive
+        super(cols, rows, PieceSequence.fed());
         this.communicator = communicator;
 
         // the communicator listens to any messages send
@@ -53,30 +48,30 @@ public class MultiplayerGame extends Game {
      * @param piece stores the type of piece to be placed
      */
     public void getPieces(int piece) {
-        GamePiece gamePiece = GamePiece.createPiece(piece);
-        //queues the gamePiece by adding it in the queue
-        pieceQueue.add(gamePiece);
-        logger.info("Queued piece: {}", gamePiece);
+        logger.info("Queued piece: {}", piece);
+        submit(engine -> {
+            //queues the piece by feeding it to the piece sequence
+            engine.getPieceSequence().offer(piece);
 
-        // if the current and next pieces were queued and the starting pieces were not initialised
-        // the next piece is fetched and the pieces are marked as initialised
-        if(pieceQueue.size() > 2 && !initialisedPieces) {
-            followingPiece = spawnPiece();
-            nextPiece();
-            initialisedPieces = true;
-        }
+            // if the current and next pieces were queued and the starting pieces were not initialised
+            // the next piece is fetched and the pieces are marked as initialised
+            if(engine.getPieceSequence().available() > 2 && !initialisedPieces) {
+                engine.initialisePieces();
+                initialisedPieces = true;
+            }
+        });
     }
 
     /**
      * spawns a game piece and sends a message to the server
-     * @return the first piece stored in the piece queue
+     * @return the first piece waiting in the piece sequence
      */
     public GamePiece spawnPiece() {
         communicator.send("PIECE");
         logger.info("Spawning Piece!");
 
-        //dequeues the first piece stored in the queue
-        return pieceQueue.poll();
+        //deals the first piece waiting in the sequence
+        return super.spawnPiece();
     }
 
     /**
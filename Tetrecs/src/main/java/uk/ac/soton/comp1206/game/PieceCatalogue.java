@@ -0,0 +1,143 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The PieceCatalogue holds every GamePiece in every rotation. All 15 pieces are built and rotated once when the
+ * catalogue is loaded, after which pieces are looked up by piece number and rotation without creating anything.
+ */
+public final class PieceCatalogue {
+
+    /**
+     * The names of the pieces, indexed by piece number
+     */
+    private static final String[] NAMES = {
+            "Line", "C", "Plus", "Dot", "Square", "L", "J", "S", "Z", "T", "X", "Corner", "Inverse Corner",
+            "Diagonal", "Double"
+    };
+
+    /**
+     * The shapes of the pieces in their starting rotation, indexed by piece number
+     */
+    private static final int[][][] SHAPES = {
+            //Line
+            {{0, 0, 0}, {1, 1, 1}, {0, 0, 0}},
+            //C
+            {{0, 0, 0}, {1, 1, 1}, {1, 0, 1}},
+            //Plus
+            {{0, 1, 0}, {1, 1, 1}, {0, 1, 0}},
+            //Dot
+            {{0, 0, 0}, {0, 1, 0}, {0, 0, 0}},
+            //Square
+            {{1, 1, 0}, {1, 1, 0}, {0, 0, 0}},
+            //L
+            {{0, 0, 0}, {1, 1, 1}, {0, 0, 1}},
+            //J
+            {{0, 0, 1}, {1, 1, 1}, {0, 0, 0}},
+            //S
+            {{0, 0, 0}, {0, 1, 1}, {1, 1, 0}},
+            //Z
+            {{1, 1, 0}, {0, 1, 1}, {0, 0, 0}},
+            //T
+            {{1, 0, 0}, {1, 1, 0}, {1, 0, 0}},
+            //X
+            {{1, 0, 1}, {0, 1, 0}, {1, 0, 1}},
+            //Corner
+            {{0, 0, 0}, {1, 1, 0}, {1, 0, 0}},
+            //Inverse Corner
+            {{1, 0, 0}, {1, 1, 0}, {0, 0, 0}},
+            //Diagonal
+            {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}},
+            //Double
+            {{0, 1, 0}, {0, 1, 0}, {0, 0, 0}}
+    };
+
+    /**
+     * Every piece in every rotation, indexed by piece number then rotation
+     */
+    private static final GamePiece[][] PIECES = new GamePiece[GamePiece.PIECES][GamePiece.ROTATIONS];
+
+    /**
+     * Whether a rotation has a different shape from every lower rotation of the same piece, once moved to the top
+     * left of its 3x3 grid. Placing a repeated rotation only ever reproduces placements of the earlier one.
+     */
+    private static final boolean[][] DISTINCT = new boolean[GamePiece.PIECES][GamePiece.ROTATIONS];
+
+    static {
+        for (int type = 0; type < GamePiece.PIECES; type++) {
+            //Use the shape of the piece to create a grid with either 0 (empty) or the value of this piece
+            int[][] blocks = new int[3][3];
+            for (int x = 0; x < 3; x++) {
+                for (int y = 0; y < 3; y++) {
+                    blocks[x][y] = SHAPES[type][x][y] == 0 ? 0 : type + 1;
+                }
+            }
+
+            for (int rotation = 0; rotation < GamePiece.ROTATIONS; rotation++) {
+                PIECES[type][rotation] = new GamePiece(type, rotation, NAMES[type], blocks);
+                blocks = rotate(blocks);
+            }
+
+            int[] shapes = new int[GamePiece.ROTATIONS];
+            for (int rotation = 0; rotation < GamePiece.ROTATIONS; rotation++) {
+                shapes[rotation] = normalise(PIECES[type][rotation].getMask());
+                DISTINCT[type][rotation] = true;
+                for (int earlier = 0; earlier < rotation; earlier++) {
+                    if (shapes[earlier] == shapes[rotation]) DISTINCT[type][rotation] = false;
+                }
+            }
+        }
+    }
+
+    private PieceCatalogue() {
+    }
+
+    /**
+     * Get the piece with the given number and rotation
+     * @param piece piece number
+     * @param rotation number of clockwise rotations, taken modulo 4
+     * @return the shared GamePiece
+     */
+    public static GamePiece get(int piece, int rotation) {
+        if (piece < 0 || piece >= GamePiece.PIECES) {
+            //Not a valid piece number
+            throw new IndexOutOfBoundsException("No such piece: " + piece);
+        }
+        return PIECES[piece][rotation & (GamePiece.ROTATIONS - 1)];
+    }
+
+    /**
+     * Checks whether a rotation of a piece has a shape that no lower rotation of the piece has
+     * @param piece piece number
+     * @param rotation rotation, from 0 to 3
+     * @return true if the rotation gives placements of its own
+     */
+    public static boolean isDistinctRotation(int piece, int rotation) {
+        return DISTINCT[piece][rotation];
+    }
+
+    /**
+     * Move a 9 bit shape mask (bit x * 3 + y) as far up and left as it goes
+     * @param mask the shape
+     * @return the shape moved to the top left
+     */
+    private static int normalise(int mask) {
+        //the columns x = 0 and the rows y = 0 of the mask
+        while ((mask & 0b000_000_111) == 0) mask >>>= 3;
+        while ((mask & 0b001_001_001) == 0) mask >>>= 1;
+        return mask;
+    }
+
+    /**
+     * Rotate a 3x3 grid of blocks exactly once
+     * @param blocks the grid to rotate
+     * @return a new rotated grid
+     */
+    private static int[][] rotate(int[][] blocks) {
+        int[][] rotated = new int[3][3];
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 3; y++) {
+                rotated[2 - y][x] = blocks[x][y];
+            }
+        }
+        return rotated;
+    }
+}
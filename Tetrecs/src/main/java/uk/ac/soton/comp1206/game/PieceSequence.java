@@ -0,0 +1,215 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A PieceSequence deals the pieces of a game from a single seed, so the same seed and strategy always deal the same
+ * pieces, for replays and reproducible simulations.
+ *
+ * The sequence runs a few pieces ahead of the game, so upcoming pieces can be looked at without being dealt. Every
+ * piece is kept as a piece number in a log of one byte per piece, so the sequence can be rewound to any point it has
+ * reached and deals the same pieces again, for undo and what-if previews. The log grows with the game rather than
+ * being a fixed ring of upcoming pieces, doubling when it fills, so a game of 10,000 pieces keeps 16KB of them. Pieces
+ * are dealt as the shared GamePiece of their starting rotation, so dealing a piece creates nothing.
+ *
+ * A sequence can also be fed pieces decided elsewhere, such as by the multiplayer server, which are logged the same
+ * way as they are dealt.
+ */
+public class PieceSequence implements PieceSource {
+
+    /**
+     * Number of pieces generated ahead by default
+     */
+    public static final int DEFAULT_LOOKAHEAD = 8;
+
+    /**
+     * Number of pieces a fed sequence can have waiting to be dealt
+     */
+    private static final int FED_CAPACITY = 64;
+
+    /**
+     * The seed the sequence was created with
+     */
+    private final long seed;
+
+    /**
+     * Decides the pieces, or null for a fed sequence
+     */
+    private final PieceStrategy strategy;
+
+    /**
+     * The random number generator the strategy draws from, or null for a fed sequence
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Number of pieces kept ready ahead of the game
+     */
+    private final int lookahead;
+
+    /**
+     * Every piece generated or fed so far, as piece numbers by position in the sequence, grown as needed
+     */
+    private byte[] pieces;
+
+    /**
+     * Position of the next piece to deal and of the next free slot, counting from the start of the sequence
+     */
+    private long head = 0;
+    private long tail = 0;
+
+    /**
+     * Create a sequence of uniformly random pieces
+     * @param seed the seed
+     */
+    public PieceSequence(long seed) {
+        this(seed, PieceStrategy.uniform(), DEFAULT_LOOKAHEAD);
+    }
+
+    /**
+     * Create a sequence
+     * @param seed the seed
+     * @param strategy decides the pieces, used by this sequence only
+     * @param lookahead the number of pieces kept ready ahead of the game, at least 1
+     */
+    public PieceSequence(long seed, PieceStrategy strategy, int lookahead) {
+        if (lookahead < 1) throw new IllegalArgumentException("Lookahead must be at least 1");
+        this.seed = seed;
+        this.strategy = strategy;
+        this.random = new SplittableRandom(seed);
+        this.lookahead = lookahead;
+        this.pieces = new byte[Math.max(64, Integer.highestOneBit(lookahead) << 1)];
+        fill();
+    }
+
+    /**
+     * Create a sequence that deals the pieces it is fed
+     */
+    private PieceSequence() {
+        this.seed = 0;
+        this.strategy = null;
+        this.random = null;
+        this.lookahead = FED_CAPACITY;
+        this.pieces = new byte[FED_CAPACITY];
+    }
+
+    /**
+     * Create a sequence that deals pieces decided elsewhere, which are given to it with offer
+     * @return the new sequence
+     */
+    public static PieceSequence fed() {
+        return new PieceSequence();
+    }
+
+    /**
+     * Generate pieces until the lookahead is full
+     */
+    private void fill() {
+        while (tail - head < lookahead) {
+            append(strategy.nextType(random));
+        }
+    }
+
+    /**
+     * Add a piece to the end of the log, growing it if it is full
+     * @param type piece number
+     */
+    private void append(int type) {
+        if (tail == pieces.length) {
+            pieces = Arrays.copyOf(pieces, pieces.length * 2);
+        }
+        pieces[(int) tail] = (byte) type;
+        tail++;
+    }
+
+    /**
+     * Add a piece decided elsewhere to the end of a fed sequence
+     * @param type piece number
+     */
+    public void offer(int type) {
+        if (strategy != null) throw new IllegalStateException("Only fed sequences can be offered pieces");
+        if (tail - head == FED_CAPACITY) throw new IllegalStateException("Too many pieces waiting to be dealt");
+        if (type < 0 || type >= GamePiece.PIECES) throw new IndexOutOfBoundsException("No such piece: " + type);
+        append(type);
+    }
+
+    /**
+     * Deal the next piece
+     * @return the next piece number, or -1 if a fed sequence has nothing waiting
+     */
+    public int nextType() {
+        if (head == tail) return -1;
+        int type = pieces[(int) head];
+        head++;
+        if (strategy != null) fill();
+        return type;
+    }
+
+    /**
+     * Deal the next piece
+     * @return the next piece in its starting rotation, or null if a fed sequence has nothing waiting
+     */
+    @Override
+    public GamePiece spawnPiece() {
+        int type = nextType();
+        return type < 0 ? null : PieceCatalogue.get(type, 0);
+    }
+
+    /**
+     * Look at an upcoming piece without dealing it
+     * @param ahead how far ahead, 0 being the next piece dealt
+     * @return the piece number
+     */
+    public int peek(int ahead) {
+        if (ahead < 0 || ahead >= available()) {
+            throw new IndexOutOfBoundsException("Only " + available() + " pieces are ready");
+        }
+        return pieces[(int) (head + ahead)];
+    }
+
+    /**
+     * Get the number of pieces ready to be dealt
+     * @return the pieces that can be peeked at
+     */
+    public int available() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * Get the number of pieces dealt so far
+     * @return the pieces dealt
+     */
+    public long getDealt() {
+        return head;
+    }
+
+    /**
+     * Go back, or forward again, to the point where the given number of pieces had been dealt, so the same pieces are
+     * dealt from there as before
+     * @param dealt the pieces dealt at that point, as given by getDealt
+     */
+    public void rewind(long dealt) {
+        if (dealt < 0 || dealt > tail) {
+            throw new IllegalArgumentException("The sequence has not reached piece " + dealt);
+        }
+        head = dealt;
+        if (strategy != null) fill();
+    }
+
+    /**
+     * Get the seed the sequence was created with
+     * @return the seed, 0 for a fed sequence
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Checks whether the sequence deals pieces decided elsewhere
+     * @return true if pieces are given to the sequence with offer
+     */
+    public boolean isFed() {
+        return strategy == null;
+    }
+}
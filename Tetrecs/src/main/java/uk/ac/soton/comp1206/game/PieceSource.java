@@ -0,0 +1,13 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A PieceSource supplies the pieces a GameEngine spawns
+ */
+public interface PieceSource {
+
+    /**
+     * Get the next piece to enter the game
+     * @return the spawned piece
+     */
+    GamePiece spawnPiece();
+}
@@ -0,0 +1,42 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * A PieceStrategy decides which piece comes next in a PieceSequence. Strategies may keep state, such as what is left
+ * in a bag, so each sequence needs its own instance. Drawing a piece must not create anything.
+ */
+public interface PieceStrategy {
+
+    /**
+     * Draw the next piece
+     * @param random the random number generator of the sequence
+     * @return the piece number
+     */
+    int nextType(SplittableRandom random);
+
+    /**
+     * Get a strategy drawing every piece with the same chance, as the original game did
+     * @return the strategy
+     */
+    static PieceStrategy uniform() {
+        return random -> random.nextInt(GamePiece.PIECES);
+    }
+
+    /**
+     * Get a strategy dealing every piece once, in a random order, before dealing them all again
+     * @return a new strategy
+     */
+    static PieceStrategy bag() {
+        return new BagStrategy();
+    }
+
+    /**
+     * Get a strategy drawing pieces with the given relative weights
+     * @param weights the weight of every piece, indexed by piece number
+     * @return a new strategy
+     */
+    static PieceStrategy weighted(int... weights) {
+        return new WeightedStrategy(weights);
+    }
+}
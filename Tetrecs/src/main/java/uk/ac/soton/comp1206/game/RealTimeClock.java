@@ -0,0 +1,39 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The RealTimeClock runs the timers of every game on a single daemon thread, so games do not need a thread each and
+ * nothing is left running when the application exits.
+ */
+class RealTimeClock implements GameClock {
+
+    /**
+     * The clock shared by every game
+     */
+    static final RealTimeClock SHARED = new RealTimeClock();
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private RealTimeClock() {
+        executor = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "Game clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //cancelled game loops are dropped straight away instead of waiting for their time
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    @Override
+    public Task schedule(Runnable task, long delay) {
+        var future = executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+}
@@ -0,0 +1,191 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A Tablebase holds an entry for every possible board of a small grid, worked out ahead of time by the
+ * TablebaseGenerator and read through a memory mapped file, so looking a board up costs one read and no heap.
+ *
+ * An entry holds 3 bits per piece, piece number 0 in the lowest bits: the most lines a single placement of that piece
+ * can clear, at most 6 as a piece touches 3 rows and 3 columns, or NO_MOVE if it cannot be placed anywhere. The 45
+ * bits of an entry are stored in 6 bytes, so the 5x5 tablebase takes 192MB. The file is a 16 byte header (magic
+ * number, version, columns and rows) followed by the entry of every board, indexed by its occupancy bits, all little
+ * endian.
+ */
+public class Tablebase {
+
+    private static final Logger logger = LogManager.getLogger(Tablebase.class);
+
+    /**
+     * Marks a piece that cannot be placed in an entry
+     */
+    public static final int NO_MOVE = 0x7;
+
+    /**
+     * Number of bits each piece has in an entry
+     */
+    public static final int BITS_PER_PIECE = 3;
+
+    /**
+     * Largest grid, in blocks, a tablebase is made for
+     */
+    public static final int MAX_CELLS = 25;
+
+    //the file header
+    static final int MAGIC = 0x31425454;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * Number of bytes each entry takes in the file
+     */
+    static final int ENTRY_BYTES = 6;
+
+    /**
+     * Tablebases already opened, keyed by grid size, empty if there is no file for that size
+     */
+    private static final ConcurrentHashMap<Long, Optional<Tablebase>> SHARED = new ConcurrentHashMap<>();
+
+    private final int cols;
+    private final int rows;
+
+    /**
+     * The mapped file
+     */
+    private final ByteBuffer data;
+
+    private Tablebase(int cols, int rows, ByteBuffer data) {
+        this.cols = cols;
+        this.rows = rows;
+        this.data = data;
+    }
+
+    /**
+     * Map a tablebase file
+     * @param file the file
+     * @return the tablebase
+     * @throws IOException if the file cannot be read or is not a tablebase
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a tablebase");
+            }
+            int cols = data.getInt(8);
+            int rows = data.getInt(12);
+            if (cols * rows > MAX_CELLS || data.capacity() != HEADER_BYTES + ((long) ENTRY_BYTES << (cols * rows))) {
+                throw new IOException(file + " has the wrong size for a " + cols + "x" + rows + " tablebase");
+            }
+            return new Tablebase(cols, rows, data);
+        }
+    }
+
+    /**
+     * Get the tablebase for grids of the given size, mapped from its default file the first time it is asked for
+     * @param cols number of columns
+     * @param rows number of rows
+     * @return the shared tablebase, or null if there is no file for grids of that size
+     */
+    public static Tablebase forSize(int cols, int rows) {
+        return SHARED.computeIfAbsent(((long) cols << 32) | rows, key -> {
+            if (cols * rows > MAX_CELLS) return Optional.empty();
+            Path file = Paths.get(System.getProperty("tetrecs.tablebase." + cols + "x" + rows,
+                    defaultFile(cols, rows)));
+            if (!Files.exists(file)) return Optional.empty();
+            try {
+                logger.info("Mapping tablebase {}", file);
+                return Optional.of(open(file));
+            } catch (IOException e) {
+                logger.error("Unable to open tablebase {}: {}", file, e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Get the name of the file a tablebase is written to by default
+     * @param cols number of columns
+     * @param rows number of rows
+     * @return the file name
+     */
+    public static String defaultFile(int cols, int rows) {
+        return "tablebase-" + cols + "x" + rows + ".bin";
+    }
+
+    /**
+     * Look up the entry of a board
+     * @param occupancy the occupancy bits of the board
+     * @return the entry
+     */
+    public long entry(long occupancy) {
+        int position = HEADER_BYTES + (int) occupancy * ENTRY_BYTES;
+        return (data.getInt(position) & 0xFFFFFFFFL) | (long) (data.getShort(position + 4) & 0xFFFF) << 32;
+    }
+
+    /**
+     * Write the entry of a board into a tablebase file
+     * @param data the mapped file
+     * @param board the occupancy bits of the board
+     * @param entry the entry
+     */
+    static void putEntry(ByteBuffer data, int board, long entry) {
+        int position = HEADER_BYTES + board * ENTRY_BYTES;
+        data.putInt(position, (int) entry);
+        data.putShort(position + 4, (short) (entry >>> 32));
+    }
+
+    /**
+     * Get the most lines a piece can clear from an entry
+     * @param entry the entry
+     * @param type piece number
+     * @return the lines, or -1 if the piece cannot be placed
+     */
+    public static int bestClears(long entry, int type) {
+        int clears = (int) (entry >>> (type * BITS_PER_PIECE)) & NO_MOVE;
+        return clears == NO_MOVE ? -1 : clears;
+    }
+
+    /**
+     * Count the pieces that cannot be placed from an entry
+     * @param entry the entry
+     * @return the number of blocked pieces
+     */
+    public static int blockedPieces(long entry) {
+        int blocked = 0;
+        for (int type = 0; type < GamePiece.PIECES; type++) {
+            if (((entry >>> (type * BITS_PER_PIECE)) & NO_MOVE) == NO_MOVE) blocked++;
+        }
+        return blocked;
+    }
+
+    /**
+     * Get the number of columns of the grids this tablebase covers
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows of the grids this tablebase covers
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,200 @@
+package uk.ac.soton.comp1206.game;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The TablebaseGenerator works out the tablebase entry of a board: for every piece, whether it can still be placed and
+ * the most lines a single placement of it can clear.
+ *
+ * Run as a program it sweeps every possible board of a small grid, split into chunks across all cores, and writes the
+ * entries to a file a Tablebase can map. The same entries are worked out one at a time for games played without a
+ * tablebase file.
+ *
+ * Usage: TablebaseGenerator [file] [cols] [rows]
+ */
+public class TablebaseGenerator {
+
+    /**
+     * Number of boards swept by each parallel task
+     */
+    private static final int CHUNK = 1 << 16;
+
+    /**
+     * Number of columns of the grids this generator handles
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the grids this generator handles
+     */
+    private final int rows;
+
+    /**
+     * The move generator, used on its own for grids of more than 64 blocks
+     */
+    private final MoveGenerator generator;
+
+    /**
+     * For every placement of every piece, the rest of each line it touches, indexed by piece number then placement
+     */
+    private final long[][][] lineRests;
+
+    /**
+     * Create a generator for grids of the given size
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public TablebaseGenerator(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.generator = MoveGenerator.of(cols, rows);
+
+        if (!generator.isBitboard()) {
+            lineRests = null;
+            return;
+        }
+
+        long[] lines = new long[cols + rows];
+        for (int y = 0; y < rows; y++) {
+            lines[y] = ((1L << cols) - 1) << (y * cols);
+        }
+        for (int x = 0; x < cols; x++) {
+            long mask = 0;
+            for (int y = 0; y < rows; y++) mask |= 1L << (x + y * cols);
+            lines[rows + x] = mask;
+        }
+
+        //a placement completes a line it touches when the board already holds the rest of it
+        lineRests = new long[GamePiece.PIECES][][];
+        long[] rests = new long[lines.length];
+        for (int type = 0; type < GamePiece.PIECES; type++) {
+            long[] masks = generator.getPlacementMasks(type);
+            lineRests[type] = new long[masks.length][];
+            for (int i = 0; i < masks.length; i++) {
+                int count = 0;
+                for (long line : lines) {
+                    if ((line & masks[i]) != 0) rests[count++] = line & ~masks[i];
+                }
+                lineRests[type][i] = Arrays.copyOf(rests, count);
+            }
+        }
+    }
+
+    /**
+     * Work out the tablebase entry of a board of up to 64 blocks
+     * @param occupancy the occupancy word of the board
+     * @return the entry, see Tablebase
+     */
+    public long entry(long occupancy) {
+        long entry = 0;
+        for (int type = 0; type < GamePiece.PIECES; type++) {
+            long[] masks = generator.getPlacementMasks(type);
+            long[][] rests = lineRests[type];
+            int best = -1;
+            for (int i = 0; i < masks.length; i++) {
+                if ((occupancy & masks[i]) != 0) continue;
+                int clears = 0;
+                for (long rest : rests[i]) {
+                    if ((occupancy & rest) == rest) clears++;
+                }
+                if (clears > best) best = clears;
+            }
+            entry |= (long) (best < 0 ? Tablebase.NO_MOVE : best) << (type * Tablebase.BITS_PER_PIECE);
+        }
+        return entry;
+    }
+
+    /**
+     * Work out the tablebase entry of a grid of any size
+     * @param grid the grid
+     * @return the entry, see Tablebase
+     */
+    public long entry(Grid grid) {
+        if (lineRests != null) return entry(grid.getOccupancyWord(0));
+
+        int[] moves = generator.newMoveBuffer();
+        long entry = 0;
+        for (int type = 0; type < GamePiece.PIECES; type++) {
+            int count = generator.generate(grid, type, moves);
+            int best = -1;
+            for (int i = 0; i < count; i++) {
+                GamePiece piece = PieceCatalogue.get(type, MoveGenerator.moveRotation(moves[i]));
+                best = Math.max(best, completedLines(grid, piece, MoveGenerator.moveX(moves[i]),
+                        MoveGenerator.moveY(moves[i])));
+            }
+            entry |= (long) (best < 0 ? Tablebase.NO_MOVE : best) << (type * Tablebase.BITS_PER_PIECE);
+        }
+        return entry;
+    }
+
+    /**
+     * Count the lines of a grid a placement would fill, from the row and column counts
+     */
+    private static int completedLines(Grid grid, GamePiece piece, int x, int y) {
+        int lines = 0;
+        for (int i = 0; i < 3; i++) {
+            int rowAdded = 0;
+            int colAdded = 0;
+            for (int b = 0; b < piece.getBlockCount(); b++) {
+                if (piece.getBlockY(b) == i) rowAdded++;
+                if (piece.getBlockX(b) == i) colAdded++;
+            }
+            if (rowAdded > 0 && grid.getRowCount(y + i) + rowAdded == grid.getCols()) lines++;
+            if (colAdded > 0 && grid.getColCount(x + i) + colAdded == grid.getRows()) lines++;
+        }
+        return lines;
+    }
+
+    /**
+     * Sweep every board and write the tablebase file
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void generate(Path file) throws IOException {
+        int cells = cols * rows;
+        if (cells > Tablebase.MAX_CELLS) {
+            throw new IllegalArgumentException("Grids of " + cells + " blocks are too large for a tablebase");
+        }
+        int boards = 1 << cells;
+        long size = Tablebase.HEADER_BYTES + (long) boards * Tablebase.ENTRY_BYTES;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, Tablebase.MAGIC);
+            buffer.putInt(4, Tablebase.VERSION);
+            buffer.putInt(8, cols);
+            buffer.putInt(12, rows);
+
+            //every task sweeps its own run of boards through its own view of the file
+            int chunks = (boards + CHUNK - 1) / CHUNK;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                var view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                int end = Math.min(boards, (chunk + 1) * CHUNK);
+                for (int board = chunk * CHUNK; board < end; board++) {
+                    Tablebase.putEntry(view, board, entry(board));
+                }
+            });
+            buffer.force();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : cols;
+        Path file = Paths.get(args.length > 0 ? args[0] : Tablebase.defaultFile(cols, rows));
+
+        long start = System.nanoTime();
+        new TablebaseGenerator(cols, rows).generate(file);
+        System.out.printf("Wrote %s in %.1fs%n", file, (System.nanoTime() - start) / 1e9);
+    }
+}
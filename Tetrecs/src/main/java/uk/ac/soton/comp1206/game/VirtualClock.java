@@ -0,0 +1,115 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.PriorityQueue;
+
+/**
+ * A VirtualClock is a GameClock whose time only moves when advance is called. The tasks that fall due are run on the
+ * thread advancing the clock, in order of their time, so a headless game can be fast-forwarded through its game loops
+ * without waiting for them.
+ */
+public class VirtualClock implements GameClock {
+
+    /**
+     * A task waiting for its time
+     */
+    private static final class Scheduled implements Task, Comparable<Scheduled> {
+        private final long time;
+        private final long order;
+        private final Runnable task;
+        private volatile boolean cancelled = false;
+
+        private Scheduled(long time, long order, Runnable task) {
+            this.time = time;
+            this.order = order;
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(Scheduled other) {
+            //tasks due at the same time run in the order they were scheduled
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    private final PriorityQueue<Scheduled> queue = new PriorityQueue<>();
+
+    private long time = 0;
+    private long scheduled = 0;
+
+    @Override
+    public synchronized long now() {
+        return time;
+    }
+
+    @Override
+    public synchronized Task schedule(Runnable task, long delay) {
+        Scheduled entry = new Scheduled(time + Math.max(0, delay), scheduled++, task);
+        queue.add(entry);
+        return entry;
+    }
+
+    /**
+     * Move the time on, running every task that falls due on the way, including tasks they schedule
+     * @param millis how far to move in milliseconds
+     * @return the number of tasks run
+     */
+    public int advance(long millis) {
+        long target;
+        synchronized (this) {
+            target = time + millis;
+        }
+        int run = 0;
+        Scheduled next;
+        while ((next = poll(target)) != null) {
+            next.task.run();
+            run++;
+        }
+        synchronized (this) {
+            time = Math.max(time, target);
+        }
+        return run;
+    }
+
+    /**
+     * Jump straight to the next task and run it
+     * @return true if there was a task to run
+     */
+    public boolean runNext() {
+        Scheduled next = poll(Long.MAX_VALUE);
+        if (next == null) return false;
+        next.task.run();
+        return true;
+    }
+
+    /**
+     * Get the number of tasks waiting, including cancelled ones not yet dropped
+     * @return the tasks waiting
+     */
+    public synchronized int getPending() {
+        return queue.size();
+    }
+
+    /**
+     * Take the next task due by a time, moving the clock to its time. Tasks are run outside the lock so they can
+     * schedule more
+     * @param limit the latest time to take a task for
+     * @return the task, or null if none is due
+     */
+    private synchronized Scheduled poll(long limit) {
+        while (!queue.isEmpty()) {
+            Scheduled next = queue.peek();
+            if (next.time > limit) return null;
+            queue.poll();
+            if (next.cancelled) continue;
+            time = Math.max(time, next.time);
+            return next;
+        }
+        return null;
+    }
+}
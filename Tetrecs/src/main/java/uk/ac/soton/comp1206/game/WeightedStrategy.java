@@ -0,0 +1,39 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws pieces with fixed relative weights, so some pieces can be made rarer than others.
+ */
+public class WeightedStrategy implements PieceStrategy {
+
+    /**
+     * Running totals of the weights, indexed by piece number
+     */
+    private final int[] cumulative = new int[GamePiece.PIECES];
+
+    /**
+     * Create a strategy with the given weights
+     * @param weights the weight of every piece, indexed by piece number, none negative and not all zero
+     */
+    public WeightedStrategy(int... weights) {
+        if (weights.length != GamePiece.PIECES) {
+            throw new IllegalArgumentException("Expected " + GamePiece.PIECES + " weights, got " + weights.length);
+        }
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) throw new IllegalArgumentException("Negative weight for piece " + i);
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total == 0) throw new IllegalArgumentException("Every weight is zero");
+    }
+
+    @Override
+    public int nextType(SplittableRandom random) {
+        int draw = random.nextInt(cumulative[cumulative.length - 1]);
+        int type = 0;
+        while (cumulative[type] <= draw) type++;
+        return type;
+    }
+}
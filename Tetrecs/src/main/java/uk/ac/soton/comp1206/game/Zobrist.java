@@ -0,0 +1,114 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * Zobrist keys for hashing game states.
+ *
+ * Every occupied block, the current piece, the following piece and the multiplier each have a random 64 bit key, and
+ * the hash of a state is the XOR of the keys of its parts. Changing one part of the state only takes one XOR to
+ * remove its old key and one to add the new one, which is how Grid keeps its hash up to date on every placement and
+ * clear.
+ *
+ * Only whether a block is occupied goes into the hash, not its colour, since the colour has no effect on the rules
+ * and boards filled by different pieces are the same position to a search. The rotation of the current piece is left
+ * out for the same reason. Keys are drawn from SplitMix64 on the index of the part, so any grid size has keys without
+ * a table to grow, and hashes are the same across runs.
+ */
+public final class Zobrist {
+
+    //seeds keeping the keys of the different parts of the state apart
+    private static final long CELL_SEED = 0x2545F4914F6CDD1DL;
+    private static final long CURRENT_SEED = 0x6A09E667F3BCC908L;
+    private static final long FOLLOWING_SEED = 0xBB67AE8584CAA73BL;
+    private static final long MULTIPLIER_SEED = 0x3C6EF372FE94F82BL;
+
+    /**
+     * Keys of the current and following pieces, indexed by piece number
+     */
+    private static final long[] CURRENT_KEYS = new long[GamePiece.PIECES];
+    private static final long[] FOLLOWING_KEYS = new long[GamePiece.PIECES];
+
+    static {
+        for (int type = 0; type < GamePiece.PIECES; type++) {
+            CURRENT_KEYS[type] = key(CURRENT_SEED, type);
+            FOLLOWING_KEYS[type] = key(FOLLOWING_SEED, type);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Get the key of an occupied block
+     * @param index index of the block, x + y * cols
+     * @return the key
+     */
+    public static long cell(int index) {
+        return key(CELL_SEED, index);
+    }
+
+    /**
+     * Get the key of the current piece
+     * @param type piece number
+     * @return the key
+     */
+    public static long current(int type) {
+        return CURRENT_KEYS[type];
+    }
+
+    /**
+     * Get the key of the following piece
+     * @param type piece number
+     * @return the key
+     */
+    public static long following(int type) {
+        return FOLLOWING_KEYS[type];
+    }
+
+    /**
+     * Get the key of a multiplier, for searches whose values depend on it
+     * @param multiplier the multiplier
+     * @return the key
+     */
+    public static long multiplier(int multiplier) {
+        return key(MULTIPLIER_SEED, multiplier);
+    }
+
+    /**
+     * Hash a game state
+     * @param grid the grid
+     * @param current the current piece
+     * @param following the following piece
+     * @return the hash of the grid and both pieces
+     */
+    public static long hash(Grid grid, GamePiece current, GamePiece following) {
+        return grid.getHash() ^ CURRENT_KEYS[current.getType()] ^ FOLLOWING_KEYS[following.getType()];
+    }
+
+    /**
+     * Hash the blocks of a grid from scratch, which Grid.getHash keeps up to date without doing
+     * @param grid the grid
+     * @return the hash of the occupied blocks
+     */
+    public static long hashBlocks(Grid grid) {
+        long hash = 0;
+        for (int y = 0; y < grid.getRows(); y++) {
+            for (int x = 0; x < grid.getCols(); x++) {
+                if (grid.isOccupied(x, y)) hash ^= cell(x + y * grid.getCols());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Work out a key, the SplitMix64 output for a seed and index
+     * @param seed seed of the part of the state
+     * @param index index of the key
+     * @return the key
+     */
+    private static long key(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
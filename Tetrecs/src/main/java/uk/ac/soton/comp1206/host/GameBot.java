@@ -0,0 +1,17 @@
+package uk.ac.soton.comp1206.host;
+
+import uk.ac.soton.comp1206.game.GameEngine;
+
+/**
+ * A GameBot plays hosted games one move at a time. AutoPlayer::play can be used as a bot.
+ */
+@FunctionalInterface
+public interface GameBot {
+
+    /**
+     * Make the next move of a game
+     * @param engine the game
+     * @return true if a piece was placed, false if the bot is stuck and leaves the timer to run out
+     */
+    boolean move(GameEngine engine);
+}
@@ -0,0 +1,122 @@
+package uk.ac.soton.comp1206.host;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.game.GameEngine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The GameHost plays thousands of headless games side by side, for bot tournaments and load generation.
+ *
+ * Games are spread over a small, fixed set of single threaded workers, each game staying on one worker so its engine
+ * needs no locking. The game loop and move timers of every game share one GameClock, normally a TimerWheel, which
+ * only passes each timer on to the game's worker. Totals across all games are kept in HostMetrics.
+ *
+ * Usage: GameHost [games] [workers] [move delay ms] [seconds] [size] [seed]
+ */
+public class GameHost {
+
+    private static final Logger logger = LogManager.getLogger(GameHost.class);
+
+    private final ExecutorService[] workers;
+    private final GameClock clock;
+    private final long moveDelay;
+    private final HostMetrics metrics = new HostMetrics();
+    private final AtomicInteger games = new AtomicInteger();
+
+    /**
+     * Create a host
+     * @param workers the number of worker threads
+     * @param clock the clock every game's timers are scheduled on
+     * @param moveDelay time between the moves of each bot in milliseconds, 0 to play as fast as the workers can
+     */
+    public GameHost(int workers, GameClock clock, long moveDelay) {
+        this.clock = clock;
+        this.moveDelay = moveDelay;
+        this.workers = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            String name = "Host worker " + i;
+            this.workers[i] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Start a game
+     * @param engine the engine, not yet initialised and not touched by anything else from now on
+     * @param bot the bot playing it, used by this game only
+     * @return the hosted game
+     */
+    public HostedGame host(GameEngine engine, GameBot bot) {
+        int id = games.getAndIncrement();
+        ExecutorService worker = workers[id % workers.length];
+        HostedGame game = new HostedGame(id, engine, bot, worker, clock, metrics, moveDelay);
+        metrics.gameStarted();
+        worker.execute(game::start);
+        return game;
+    }
+
+    /**
+     * @return the totals across every game
+     */
+    public HostMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stop every worker, abandoning the games still running. Timers that fire afterwards are dropped, though the clock
+     * is best stopped first
+     */
+    public void shutdown() {
+        for (ExecutorService worker : workers) {
+            worker.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long moveDelay = args.length > 2 ? Long.parseLong(args[2]) : 250;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int size = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+        TimerWheel wheel = new TimerWheel(10, 1024);
+        GameHost host = new GameHost(workers, wheel, moveDelay);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger next = new AtomicInteger();
+
+        //every game that ends is replaced, so the load stays the same for the whole run
+        Runnable[] start = new Runnable[1];
+        start[0] = () -> {
+            if (!running.get()) return;
+            long gameSeed = seed + next.getAndIncrement();
+            host.host(new GameEngine(size, size, gameSeed), new RandomBot(gameSeed))
+                    .getCompletion().thenRun(start[0]);
+        };
+        for (int i = 0; i < games; i++) {
+            start[0].run();
+        }
+
+        logger.info("Hosting {} games on {} workers", games, workers);
+        long placed = 0;
+        for (int i = 0; i < seconds; i++) {
+            Thread.sleep(1000);
+            long total = host.getMetrics().getPiecesPlaced();
+            logger.info("{} pieces in the last second, {}", total - placed, host.getMetrics());
+            placed = total;
+        }
+        //the wheel stops first, so no timer passes work on to a worker that has been shut down
+        running.set(false);
+        wheel.stop();
+        host.shutdown();
+    }
+}
@@ -0,0 +1,126 @@
+package uk.ac.soton.comp1206.host;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals across every game of a GameHost. The totals are striped counters, so the workers of the host add to
+ * them without contending, and they can be read at any time.
+ */
+public class HostMetrics {
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder piecesPlaced = new LongAdder();
+    private final LongAdder linesCleared = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder score = new LongAdder();
+
+    /**
+     * The time the metrics started in nanoseconds
+     */
+    private final long start = System.nanoTime();
+
+    void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    void gameFinished(int finalScore) {
+        gamesFinished.increment();
+        score.add(finalScore);
+    }
+
+    void move() {
+        moves.increment();
+    }
+
+    void piecePlaced() {
+        piecesPlaced.increment();
+    }
+
+    void linesCleared(int lines) {
+        linesCleared.add(lines);
+    }
+
+    void timeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * @return the number of games started
+     */
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    /**
+     * @return the number of games that have ended
+     */
+    public long getGamesFinished() {
+        return gamesFinished.sum();
+    }
+
+    /**
+     * @return the number of games still being played
+     */
+    public long getGamesRunning() {
+        return getGamesStarted() - getGamesFinished();
+    }
+
+    /**
+     * @return the number of moves the bots have made
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * @return the number of pieces placed
+     */
+    public long getPiecesPlaced() {
+        return piecesPlaced.sum();
+    }
+
+    /**
+     * @return the number of lines cleared
+     */
+    public long getLinesCleared() {
+        return linesCleared.sum();
+    }
+
+    /**
+     * @return the number of times a game timer ran out
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return the average final score of the games that have ended
+     */
+    public double getAverageScore() {
+        long finished = getGamesFinished();
+        return finished == 0 ? 0 : (double) score.sum() / finished;
+    }
+
+    /**
+     * @return the seconds since the metrics started
+     */
+    public double getSeconds() {
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    /**
+     * @return the pieces placed per second since the metrics started
+     */
+    public double getPiecesPerSecond() {
+        return getPiecesPlaced() / Math.max(getSeconds(), 1e-9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d running, %d finished, %d pieces (%.0f/s), %d lines, %d timeouts, average score %.0f",
+                getGamesRunning(), getGamesFinished(), getPiecesPlaced(), getPiecesPerSecond(), getLinesCleared(),
+                getTimeouts(), getAverageScore());
+    }
+}
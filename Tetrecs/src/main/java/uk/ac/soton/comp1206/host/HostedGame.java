@@ -0,0 +1,168 @@
+package uk.ac.soton.comp1206.host;
+
+import uk.ac.soton.comp1206.event.GameEvent;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.game.GameEngine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A game played by a bot on a GameHost. Everything a hosted game does runs on the one worker it was given, so its
+ * engine is never touched by two threads at once. Its timers only pass work on to that worker.
+ */
+public class HostedGame {
+
+    private final int id;
+    private final GameEngine engine;
+    private final GameBot bot;
+    private final Executor worker;
+    private final GameClock clock;
+    private final HostMetrics metrics;
+
+    /**
+     * Time between moves in milliseconds, 0 to move again as soon as the worker gets to it
+     */
+    private final long moveDelay;
+
+    //the timers running now, only touched on the worker
+    private GameClock.Task loopTimer;
+    private GameClock.Task moveTimer;
+
+    /**
+     * Whether the bot's next move is waiting to run
+     */
+    private boolean moving = false;
+
+    /**
+     * Counts up whenever the game loop timer starts again, so a timer that already fired before it was reset is ignored
+     */
+    private long loopGeneration = 0;
+
+    private final CompletableFuture<HostedGame> completion = new CompletableFuture<>();
+
+    HostedGame(int id, GameEngine engine, GameBot bot, Executor worker, GameClock clock, HostMetrics metrics,
+               long moveDelay) {
+        this.id = id;
+        this.engine = engine;
+        this.bot = bot;
+        this.worker = worker;
+        this.clock = clock;
+        this.metrics = metrics;
+        this.moveDelay = moveDelay;
+
+        engine.addListener(event -> {
+            if (event == GameEvent.PIECE_PLACED) {
+                metrics.piecePlaced();
+            } else if (event == GameEvent.LINES_CLEARED) {
+                metrics.linesCleared(engine.getClearResult().getLines());
+            }
+        });
+    }
+
+    /**
+     * Deal the pieces and start the timers, on the worker
+     */
+    void start() {
+        engine.initialisePieces();
+        startLoop();
+        scheduleMove();
+    }
+
+    /**
+     * Let the bot make a move, on the worker
+     */
+    private void move() {
+        moving = false;
+        if (engine.isGameOver()) return;
+        metrics.move();
+        //placing a piece starts the timer again, a stuck bot waits for the timer to run out
+        if (bot.move(engine)) {
+            startLoop();
+            scheduleMove();
+        }
+    }
+
+    /**
+     * Run the game loop timer out, on the worker
+     * @param generation the timer that fired
+     */
+    private void timeout(long generation) {
+        if (generation != loopGeneration || engine.isGameOver()) return;
+        metrics.timeout();
+        if (engine.timeout()) {
+            //the timer running out deals a new piece, which the bot may be able to place
+            startLoop();
+            if (!moving) scheduleMove();
+        } else {
+            finish();
+        }
+    }
+
+    private void scheduleMove() {
+        moving = true;
+        if (moveDelay <= 0) {
+            worker.execute(this::move);
+        } else {
+            moveTimer = clock.schedule(() -> onWorker(this::move), moveDelay);
+        }
+    }
+
+    private void startLoop() {
+        if (loopTimer != null) loopTimer.cancel();
+        long generation = ++loopGeneration;
+        loopTimer = clock.schedule(() -> onWorker(() -> timeout(generation)), engine.getTimeDelay());
+    }
+
+    /**
+     * Pass a timer on to the worker, unless the host has been shut down and the game abandoned
+     * @param task what the timer does
+     */
+    private void onWorker(Runnable task) {
+        try {
+            worker.execute(task);
+        } catch (RejectedExecutionException e) {
+            //the worker was shut down, so the game is over as far as the host is concerned
+        }
+    }
+
+    /**
+     * Stop the timers and record the result, on the worker
+     */
+    private void finish() {
+        if (loopTimer != null) loopTimer.cancel();
+        if (moveTimer != null) moveTimer.cancel();
+        metrics.gameFinished(engine.getScore());
+        completion.complete(this);
+    }
+
+    /**
+     * @return the number of this game on its host
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the engine of this game, only to be read once the game is finished
+     * @return the engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return completes with this game once it is over
+     */
+    public CompletableFuture<HostedGame> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * @return true once the game is over
+     */
+    public boolean isFinished() {
+        return completion.isDone();
+    }
+}
@@ -0,0 +1,40 @@
+package uk.ac.soton.comp1206.host;
+
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.MoveGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * A RandomBot places the current piece at a random legal placement, as cheap a player as there can be, for generating
+ * load. Each bot keeps its own buffer and random numbers, so a bot should only play one game at a time.
+ */
+public class RandomBot implements GameBot {
+
+    private final SplittableRandom random;
+    private int[] moves;
+
+    /**
+     * Create a bot
+     * @param seed the seed of its choices
+     */
+    public RandomBot(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public boolean move(GameEngine engine) {
+        MoveGenerator generator = MoveGenerator.of(engine.getGrid());
+        if (moves == null) moves = generator.newMoveBuffer();
+
+        int count = generator.generate(engine.getGrid(), engine.getCurrentPiece(), moves);
+        if (count == 0) return false;
+
+        int move = moves[random.nextInt(count)];
+        int rotations = (MoveGenerator.moveRotation(move) - engine.getCurrentPiece().getRotation()) & 3;
+        if (rotations != 0) {
+            engine.rotatePiece(rotations);
+        }
+        return engine.placePiece(MoveGenerator.moveX(move), MoveGenerator.moveY(move));
+    }
+}
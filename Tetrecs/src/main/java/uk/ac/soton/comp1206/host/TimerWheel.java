@@ -0,0 +1,155 @@
+package uk.ac.soton.comp1206.host;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.game.MpscQueue;
+
+import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A TimerWheel is a GameClock for hosting many games at once: a hashed wheel of slots, each covering one tick, turned
+ * by a single daemon thread.
+ *
+ * Scheduling from any thread adds the timer to a lock-free queue, which the wheel thread sorts into the slot of its
+ * deadline on the next tick. Each tick only the timers of one slot are looked at, so thousands of waiting timers cost
+ * nothing until they are due. Timers run on the wheel thread and fire up to one tick late, so they should only pass
+ * the real work on.
+ */
+public class TimerWheel implements GameClock {
+
+    private static final Logger logger = LogManager.getLogger(TimerWheel.class);
+
+    /**
+     * A timer waiting in a slot
+     */
+    private static final class Timer implements Task {
+        private final long deadline;
+        private final Runnable task;
+        private volatile boolean cancelled = false;
+
+        private Timer(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Length of a tick in milliseconds
+     */
+    private final long tickMillis;
+
+    /**
+     * The slots, each holding the timers due on the ticks that map to it
+     */
+    private final ArrayList<ArrayList<Timer>> slots;
+    private final int mask;
+
+    /**
+     * Timers scheduled since the last tick
+     */
+    private final MpscQueue<Timer> added = new MpscQueue<>();
+
+    private final long start = System.nanoTime();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * The last tick turned, only written by the wheel thread
+     */
+    private volatile long tick = 0;
+
+    /**
+     * Create and start a wheel
+     * @param tickMillis the length of a tick in milliseconds
+     * @param slots the number of slots, rounded up to a power of two
+     */
+    public TimerWheel(long tickMillis, int slots) {
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            this.slots.add(new ArrayList<>());
+        }
+        this.mask = size - 1;
+
+        this.thread = new Thread(this::run, "Timer wheel");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public long now() {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Override
+    public Task schedule(Runnable task, long delay) {
+        //the timer is due on the first tick at or after its time
+        long deadline = (now() + Math.max(0, delay) + tickMillis - 1) / tickMillis;
+        Timer timer = new Timer(Math.max(deadline, tick + 1), task);
+        added.offer(timer);
+        return timer;
+    }
+
+    /**
+     * Stop turning the wheel, dropping every timer. Returns once the timers of the tick being turned have run, so no
+     * timer fires afterwards
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() == thread) return;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Turn the wheel a tick at a time, firing the timers of each slot as it comes round
+     */
+    private void run() {
+        long next = 1;
+        while (running) {
+            long wait = start + next * tickMillis * 1_000_000 - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+
+            Timer timer;
+            while ((timer = added.poll()) != null) {
+                if (!timer.cancelled) slots.get((int) (Math.max(timer.deadline, next) & mask)).add(timer);
+            }
+
+            //timers further away than a full turn stay in their slot until their round comes
+            ArrayList<Timer> slot = slots.get((int) (next & mask));
+            int kept = 0;
+            for (int i = 0; i < slot.size(); i++) {
+                Timer due = slot.get(i);
+                if (due.cancelled) continue;
+                if (due.deadline > next) {
+                    slot.set(kept++, due);
+                    continue;
+                }
+                try {
+                    due.task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Timer failed", e);
+                }
+            }
+            slot.subList(kept, slot.size()).clear();
+
+            tick = next;
+            next++;
+        }
+    }
+}
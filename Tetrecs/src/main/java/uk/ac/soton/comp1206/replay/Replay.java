@@ -0,0 +1,203 @@
+package uk.ac.soton.comp1206.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * A Replay is a recorded game: the size of the grid and the seed of the pieces, followed by every action made on the
+ * game.
+ *
+ * The encoding starts with the bytes "TRP" and a version byte, then the columns and rows as varints and the seed as 8
+ * bytes. Each action follows as a varint of the milliseconds since the previous action, a byte holding the action in
+ * its low 2 bits and the rotations in the next 2, and for placements the x and y coordinates of the piece, plus 2, as
+ * varints. Most actions take 2 to 4 bytes. A finished game ends with a record whose action byte is 0x10, holding the
+ * final score as a varint.
+ */
+public class Replay {
+
+    /**
+     * The first bytes of every replay
+     */
+    static final byte[] MAGIC = {'T', 'R', 'P', 1};
+
+    /**
+     * The extension replay files are saved with
+     */
+    public static final String EXTENSION = ".replay";
+
+    /**
+     * The directory games are recorded into
+     */
+    public static final Path DIRECTORY = Paths.get("replays");
+
+    /**
+     * Most blocks a replayed grid can have, so a corrupt header cannot ask for a huge grid
+     */
+    public static final int MAX_CELLS = 1 << 20;
+
+    private final byte[] data;
+    private final int cols;
+    private final int rows;
+    private final long seed;
+
+    /**
+     * Index of the first action
+     */
+    private final int start;
+
+    /**
+     * Number of actions
+     */
+    private final int actions;
+
+    /**
+     * Time of the last action in milliseconds
+     */
+    private final long length;
+
+    /**
+     * Final score recorded at the end of the game, or -1 if the game was not finished
+     */
+    private final int claimedScore;
+
+    private Replay(byte[] data, int cols, int rows, long seed, int start, int actions, long length, int claimedScore) {
+        this.data = data;
+        this.cols = cols;
+        this.rows = rows;
+        this.seed = seed;
+        this.start = start;
+        this.actions = actions;
+        this.length = length;
+        this.claimedScore = claimedScore;
+    }
+
+    /**
+     * Decode a replay, checking every action
+     * @param data the encoded replay, which must not be changed afterwards
+     * @return the replay
+     * @throws IllegalArgumentException if the data is not a valid replay
+     */
+    public static Replay of(byte[] data) {
+        if (data.length < MAGIC.length) throw new IllegalArgumentException("Not a replay");
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) throw new IllegalArgumentException("Not a replay");
+        }
+
+        try {
+            ReplayReader header = new ReplayReader(data, MAGIC.length);
+            int cols = (int) header.readVarint();
+            int rows = (int) header.readVarint();
+            if (cols < 1 || rows < 1 || (long) cols * rows > MAX_CELLS) {
+                throw new IllegalArgumentException("Replay has a " + cols + "x" + rows + " grid");
+            }
+            long seed = header.readLong();
+            int start = header.getPosition();
+
+            ReplayReader reader = new ReplayReader(data, start);
+            int actions = 0;
+            while (reader.next()) actions++;
+            return new Replay(data, cols, rows, seed, start, actions, reader.getTick(), reader.getClaimedScore());
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Replay is cut short");
+        }
+    }
+
+    /**
+     * Read a replay file
+     * @param file the file
+     * @return the replay
+     * @throws IOException if the file cannot be read or is not a valid replay
+     */
+    public static Replay read(Path file) throws IOException {
+        try {
+            return of(Files.readAllBytes(file));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Find the most recently saved replay in a directory
+     * @param directory the directory
+     * @return the newest replay file, or null if there are none
+     * @throws IOException if the directory cannot be listed
+     */
+    public static Path latest(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return null;
+        try (Stream<Path> files = Files.list(directory)) {
+            //replays are named by the time they were saved, so the newest sorts last
+            return files.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .max(Path::compareTo)
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * Write this replay to a file
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Files.write(file, data);
+    }
+
+    /**
+     * Get a reader over the actions of this replay
+     * @return a new reader, before the first action
+     */
+    public ReplayReader reader() {
+        return new ReplayReader(data, start);
+    }
+
+    /**
+     * @return the number of columns of the grid
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return the number of rows of the grid
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the seed of the pieces
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the number of actions
+     */
+    public int getActions() {
+        return actions;
+    }
+
+    /**
+     * @return the time of the last action in milliseconds from the start of the game
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return the final score recorded at the end of the game, or -1 if the game was not finished
+     */
+    public int getClaimedScore() {
+        return claimedScore;
+    }
+
+    /**
+     * @return the size of the encoded replay in bytes
+     */
+    public int getSize() {
+        return data.length;
+    }
+}
@@ -0,0 +1,156 @@
+package uk.ac.soton.comp1206.replay;
+
+import javafx.animation.AnimationTimer;
+import uk.ac.soton.comp1206.event.GameActionListener;
+import uk.ac.soton.comp1206.game.GameAction;
+import uk.ac.soton.comp1206.game.GameEngine;
+
+/**
+ * Plays a Replay back.
+ *
+ * simulate runs a replay through a headless GameEngine as fast as it can. A player instance instead passes the
+ * actions to a target as the recorded time passes, sped up by a chosen factor, from a JavaFX AnimationTimer so the
+ * target can update the user interface.
+ */
+public class ReplayPlayer {
+
+    private final Replay replay;
+    private final GameActionListener target;
+    private final ReplayReader reader;
+    private final AnimationTimer timer;
+
+    //how fast the replay plays, and how far into it playback is in milliseconds
+    private double speed = 1;
+    private double position = 0;
+    private long lastFrame = 0;
+
+    //whether the reader holds an action not passed on yet
+    private boolean pending;
+
+    private Runnable onFinished = null;
+
+    /**
+     * Create a player passing the actions of a replay to a target
+     * @param replay the replay
+     * @param target receives the actions, on the JavaFX thread
+     */
+    public ReplayPlayer(Replay replay, GameActionListener target) {
+        this.replay = replay;
+        this.target = target;
+        this.reader = replay.reader();
+        this.pending = reader.next();
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                frame(now);
+            }
+        };
+    }
+
+    /**
+     * Re-simulate a replay headless at full speed
+     * @param replay the replay
+     * @return the engine at the end of the replay
+     */
+    public static GameEngine simulate(Replay replay) {
+        GameEngine engine = new GameEngine(replay.getCols(), replay.getRows(), replay.getSeed());
+        engine.initialisePieces();
+        ReplayReader reader = replay.reader();
+        while (reader.next()) {
+            apply(engine, reader.getAction(), reader.getX(), reader.getY(), reader.getRotation());
+        }
+        return engine;
+    }
+
+    /**
+     * Make an action on an engine
+     * @param engine the engine
+     * @param action the action
+     * @param x x coordinate of the piece for placements
+     * @param y y coordinate of the piece for placements
+     * @param rotation the number of rotations for rotations
+     */
+    public static void apply(GameEngine engine, GameAction action, int x, int y, int rotation) {
+        switch (action) {
+            case PLACE -> engine.placePiece(x, y);
+            case ROTATE -> engine.rotatePiece(rotation);
+            case SWAP -> engine.swapCurrentPiece();
+            case TIMEOUT -> engine.timeout();
+        }
+    }
+
+    /**
+     * Start or carry on playing
+     * @param speed how many times faster than recorded to play
+     */
+    public void play(double speed) {
+        this.speed = speed;
+        lastFrame = 0;
+        timer.start();
+    }
+
+    /**
+     * Stop playing, leaving the position where it is
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Change how fast the replay plays
+     * @param speed how many times faster than recorded to play
+     */
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * @return how many times faster than recorded the replay plays
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @return true once every action has been passed on
+     */
+    public boolean isFinished() {
+        return !pending;
+    }
+
+    /**
+     * Set what happens once every action has been passed on
+     * @param onFinished called on the JavaFX thread at the end of the replay
+     */
+    public void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    /**
+     * @return the replay being played
+     */
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Move playback on by the time since the last frame and pass on every action that is due
+     * @param now the time of this frame in nanoseconds
+     */
+    private void frame(long now) {
+        if (lastFrame != 0) {
+            position += (now - lastFrame) / 1_000_000.0 * speed;
+        }
+        lastFrame = now;
+
+        while (pending && reader.getTick() <= position) {
+            target.gameAction(reader.getAction(), reader.getX(), reader.getY(), reader.getRotation());
+            pending = reader.next();
+        }
+
+        if (!pending) {
+            timer.stop();
+            if (onFinished != null) onFinished.run();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package uk.ac.soton.comp1206.replay;
+
+import uk.ac.soton.comp1206.game.GameAction;
+
+/**
+ * Decodes the actions of a replay one at a time. The reader holds the current action in its fields, so reading a
+ * replay creates nothing per action.
+ */
+public class ReplayReader {
+
+    private static final GameAction[] ACTIONS = GameAction.values();
+
+    /**
+     * Set in the action byte of the record that ends a finished game
+     */
+    static final int END = 0x10;
+
+    private final byte[] data;
+    private int position;
+
+    //the current action
+    private long tick = 0;
+    private GameAction action;
+    private int x;
+    private int y;
+    private int rotation;
+
+    //the final score claimed by the end record, -1 until it is read
+    private int claimedScore = -1;
+
+    /**
+     * Create a reader starting at the given position
+     * @param data the encoded replay
+     * @param position index of the first byte to read
+     */
+    ReplayReader(byte[] data, int position) {
+        this.data = data;
+        this.position = position;
+    }
+
+    /**
+     * Move on to the next action
+     * @return true if there was another action, false at the end of the replay
+     */
+    public boolean next() {
+        if (position >= data.length) return false;
+
+        tick += readVarint();
+        int header = data[position++] & 0xFF;
+        if ((header & END) != 0) {
+            claimedScore = (int) readVarint();
+            position = data.length;
+            return false;
+        }
+        action = ACTIONS[header & 3];
+        rotation = (header >>> 2) & 3;
+        if (action == GameAction.PLACE) {
+            x = (int) readVarint() - 2;
+            y = (int) readVarint() - 2;
+        } else {
+            x = 0;
+            y = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Read an unsigned variable length number, 7 bits per byte with the top bit set on every byte but the last
+     * @return the number
+     */
+    long readVarint() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Read a long stored as 8 bytes, highest byte first
+     * @return the number
+     */
+    long readLong() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * @return the final score claimed once the end of a finished game is reached, otherwise -1
+     */
+    public int getClaimedScore() {
+        return claimedScore;
+    }
+
+    /**
+     * @return the index of the next byte to read
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the time of the current action, in milliseconds from the start of the game
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return the current action
+     */
+    public GameAction getAction() {
+        return action;
+    }
+
+    /**
+     * @return the x coordinate of the piece for placements
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return the y coordinate of the piece for placements
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return the number of rotations for rotations
+     */
+    public int getRotation() {
+        return rotation;
+    }
+}
@@ -0,0 +1,160 @@
+package uk.ac.soton.comp1206.replay;
+
+import uk.ac.soton.comp1206.event.GameActionListener;
+import uk.ac.soton.comp1206.game.GameAction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Records the actions made on a game into a Replay. Add the recorder as an action listener of the game's engine before
+ * the game starts. Every action is recorded on the game's actor thread, while the game is finished and saved from the
+ * user interface thread, so the recorder is synchronized between the two.
+ */
+public class ReplayRecorder implements GameActionListener {
+
+    /**
+     * How saved replays are named
+     */
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /**
+     * Gives the current time in milliseconds
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The encoded replay so far
+     */
+    private byte[] buffer = new byte[256];
+    private int length = 0;
+
+    /**
+     * Time of the previous action
+     */
+    private long lastTick;
+
+    /**
+     * Whether the end of the game has been recorded
+     */
+    private boolean finished = false;
+
+    /**
+     * Create a recorder timing actions from when it was created
+     * @param cols number of columns of the grid
+     * @param rows number of rows of the grid
+     * @param seed the seed of the pieces
+     */
+    public ReplayRecorder(int cols, int rows, long seed) {
+        this(cols, rows, seed, millisSince(System.nanoTime()));
+    }
+
+    /**
+     * Create a recorder timing actions with the given clock
+     * @param cols number of columns of the grid
+     * @param rows number of rows of the grid
+     * @param seed the seed of the pieces
+     * @param clock gives the current time in milliseconds
+     */
+    public ReplayRecorder(int cols, int rows, long seed, LongSupplier clock) {
+        this.clock = clock;
+        this.lastTick = clock.getAsLong();
+
+        for (byte b : Replay.MAGIC) writeByte(b);
+        writeVarint(cols);
+        writeVarint(rows);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (seed >>> shift));
+        }
+    }
+
+    /**
+     * Get a clock counting milliseconds from a moment
+     * @param start the moment, from System.nanoTime
+     * @return the clock
+     */
+    private static LongSupplier millisSince(long start) {
+        return () -> (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Override
+    public synchronized void gameAction(GameAction action, int x, int y, int rotation) {
+        if (finished) return;
+        long tick = clock.getAsLong();
+        writeVarint(Math.max(0, tick - lastTick));
+        lastTick = tick;
+
+        writeByte(action.ordinal() | ((rotation & 3) << 2));
+        if (action == GameAction.PLACE) {
+            writeVarint(x + 2);
+            writeVarint(y + 2);
+        }
+    }
+
+    /**
+     * Record the end of the game with its final score, after which no more actions are recorded
+     * @param score the final score
+     */
+    public synchronized void finish(int score) {
+        if (finished) return;
+        finished = true;
+
+        long tick = clock.getAsLong();
+        writeVarint(Math.max(0, tick - lastTick));
+        lastTick = tick;
+        writeByte(ReplayReader.END);
+        writeVarint(score);
+    }
+
+    /**
+     * Get the replay recorded so far
+     * @return the replay
+     */
+    public synchronized Replay toReplay() {
+        return Replay.of(Arrays.copyOf(buffer, length));
+    }
+
+    /**
+     * Save the replay recorded so far to a new file named by the current time
+     * @param directory the directory to save into, created if needed
+     * @return the file written
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized Path save(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(LocalDateTime.now().format(FILE_NAME) + Replay.EXTENSION);
+        Files.write(file, Arrays.copyOf(buffer, length));
+        return file;
+    }
+
+    /**
+     * @return the size of the replay recorded so far in bytes
+     */
+    public synchronized int getSize() {
+        return length;
+    }
+
+    private void writeByte(int b) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[length++] = (byte) b;
+    }
+
+    /**
+     * Write an unsigned variable length number, 7 bits per byte with the top bit set on every byte but the last
+     * @param value the number, not negative
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+}
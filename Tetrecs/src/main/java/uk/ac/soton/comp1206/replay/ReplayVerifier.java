@@ -0,0 +1,155 @@
+package uk.ac.soton.comp1206.replay;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.GameEngine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The ReplayVerifier checks high scores by re-simulating their replays through a headless GameEngine. A replay passes
+ * when it ends the game with exactly the score recorded at its end.
+ *
+ * Run as a program it checks every replay in a directory, spread across all cores, and writes a report with a line per
+ * replay followed by the totals.
+ *
+ * Usage: ReplayVerifier [directory] [report]
+ */
+public class ReplayVerifier {
+
+    private static final Logger logger = LogManager.getLogger(ReplayVerifier.class);
+
+    /**
+     * The pool the replays are checked on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a verifier checking replays on the common pool
+     */
+    public ReplayVerifier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a verifier checking replays on the given pool
+     * @param pool the pool
+     */
+    public ReplayVerifier(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Check a replay against the score it claims
+     * @param name the name of the replay for the report
+     * @param replay the replay
+     * @return the result
+     */
+    public static VerificationResult verify(String name, Replay replay) {
+        GameEngine engine = new GameEngine(replay.getCols(), replay.getRows(), replay.getSeed());
+        engine.initialisePieces();
+
+        ReplayReader reader = replay.reader();
+        int actions = 0;
+        int late = 0;
+        while (reader.next()) {
+            //nothing can be done once the game is over
+            if (engine.isGameOver()) late++;
+            ReplayPlayer.apply(engine, reader.getAction(), reader.getX(), reader.getY(), reader.getRotation());
+            actions++;
+        }
+
+        int claimed = replay.getClaimedScore();
+        int score = engine.getScore();
+        String reason;
+        if (claimed < 0) {
+            reason = "no score recorded";
+        } else if (!engine.isGameOver()) {
+            reason = "game does not end";
+        } else if (late > 0) {
+            reason = late + " actions after the game ended";
+        } else if (claimed != score) {
+            reason = "score does not match";
+        } else {
+            return new VerificationResult(name, VerificationResult.Verdict.PASS, claimed, score, actions, "");
+        }
+        return new VerificationResult(name, VerificationResult.Verdict.FAIL, claimed, score, actions, reason);
+    }
+
+    /**
+     * Read a replay file and check it against the score it claims
+     * @param file the file
+     * @return the result, an ERROR if the file could not be read
+     */
+    public static VerificationResult verify(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return verify(name, Replay.read(file));
+        } catch (IOException e) {
+            return new VerificationResult(name, VerificationResult.Verdict.ERROR, -1, -1, 0, e.getMessage());
+        }
+    }
+
+    /**
+     * Check every replay in a directory in parallel
+     * @param directory the directory
+     * @return the results, in the order of the file names
+     * @throws IOException if the directory cannot be listed
+     */
+    public List<VerificationResult> verifyAll(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(Replay.EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        logger.info("Verifying {} replays", files.size());
+
+        //a parallel stream started from inside the pool runs on that pool
+        return pool.submit(() -> files.parallelStream()
+                .map(ReplayVerifier::verify)
+                .collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Write a report of results, a line per replay followed by the totals
+     * @param results the results
+     * @param writer where to write the report
+     */
+    public static void writeReport(List<VerificationResult> results, Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        int[] counts = new int[VerificationResult.Verdict.values().length];
+        for (VerificationResult result : results) {
+            out.println(result);
+            counts[result.getVerdict().ordinal()]++;
+        }
+        out.printf("%d replays: %d passed, %d failed, %d unreadable%n", results.size(),
+                counts[VerificationResult.Verdict.PASS.ordinal()],
+                counts[VerificationResult.Verdict.FAIL.ordinal()],
+                counts[VerificationResult.Verdict.ERROR.ordinal()]);
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Paths.get(args[0]) : Replay.DIRECTORY;
+        Path report = Paths.get(args.length > 1 ? args[1] : "replay-report.txt");
+
+        long start = System.nanoTime();
+        List<VerificationResult> results = new ReplayVerifier().verifyAll(directory);
+        try (Writer writer = Files.newBufferedWriter(report)) {
+            writeReport(results, writer);
+        }
+        long passed = results.stream().filter(VerificationResult::isPass).count();
+        System.out.printf("Verified %d replays in %.1fs, %d passed, report written to %s%n",
+                results.size(), (System.nanoTime() - start) / 1e9, passed, report);
+    }
+}
@@ -0,0 +1,110 @@
+package uk.ac.soton.comp1206.replay;
+
+/**
+ * The outcome of checking one replay against the score it claims.
+ */
+public class VerificationResult {
+
+    /**
+     * Whether a replay backs up its score
+     */
+    public enum Verdict {
+        /**
+         * The replay ends the game with the score it claims
+         */
+        PASS,
+
+        /**
+         * The replay does not back up its score
+         */
+        FAIL,
+
+        /**
+         * The replay could not be read
+         */
+        ERROR
+    }
+
+    private final String name;
+    private final Verdict verdict;
+    private final int claimedScore;
+    private final int score;
+    private final int actions;
+    private final String reason;
+
+    /**
+     * Create a result
+     * @param name the name of the replay
+     * @param verdict the verdict
+     * @param claimedScore the score the replay claims, -1 if none
+     * @param score the score the replay reaches when simulated, -1 if it could not be
+     * @param actions the number of actions simulated
+     * @param reason why the replay did not pass, or an empty string
+     */
+    public VerificationResult(String name, Verdict verdict, int claimedScore, int score, int actions, String reason) {
+        this.name = name;
+        this.verdict = verdict;
+        this.claimedScore = claimedScore;
+        this.score = score;
+        this.actions = actions;
+        this.reason = reason;
+    }
+
+    /**
+     * @return the name of the replay
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the verdict
+     */
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * @return true if the replay backs up its score
+     */
+    public boolean isPass() {
+        return verdict == Verdict.PASS;
+    }
+
+    /**
+     * @return the score the replay claims, -1 if none
+     */
+    public int getClaimedScore() {
+        return claimedScore;
+    }
+
+    /**
+     * @return the score the replay reaches when simulated, -1 if it could not be
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of actions simulated
+     */
+    public int getActions() {
+        return actions;
+    }
+
+    /**
+     * @return why the replay did not pass, or an empty string
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @return the result as a line of a report
+     */
+    @Override
+    public String toString() {
+        return String.format("%-5s %-32s claimed %9d simulated %9d actions %6d %s",
+                verdict, name, claimedScore, score, actions, reason);
+    }
+}
@@ -3,6 +3,7 @@ package uk.ac.soton.comp1206.scene;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.geometry.HPos;
@@ -18,17 +19,26 @@ import javafx.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.Utilities.Multimedia;
+import uk.ac.soton.comp1206.ai.AutoPlayer;
+import uk.ac.soton.comp1206.ai.Decision;
+import uk.ac.soton.comp1206.ai.RolloutEvaluator;
+import uk.ac.soton.comp1206.ai.RolloutResult;
+import uk.ac.soton.comp1206.component.CanvasBoard;
 import uk.ac.soton.comp1206.component.GameBlock;
-import uk.ac.soton.comp1206.component.GameBlockCoordinate;
 import uk.ac.soton.comp1206.component.GameBoard;
 import uk.ac.soton.comp1206.component.PieceBoard;
+import uk.ac.soton.comp1206.game.ClearResult;
 import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.replay.Replay;
+import uk.ac.soton.comp1206.replay.ReplayRecorder;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The Single Player challenge scene. Holds the UI for the single player challenge mode in the game.
@@ -37,6 +47,12 @@ public class ChallengeScene extends BaseScene {
     private static final Logger logger = LogManager.getLogger(ChallengeScene.class);
     protected Game game;
 
+    //size of the board, 5x5 unless -Dtetrecs.board.cols and -Dtetrecs.board.rows are given for stress and training runs
+    protected static final int BOARD_COLS = Integer.getInteger("tetrecs.board.cols", 5);
+    protected static final int BOARD_ROWS = Integer.getInteger("tetrecs.board.rows", 5);
+    //boards with more blocks than this are drawn by a CanvasBoard
+    protected static final int CANVAS_BOARD_BLOCKS = 100;
+
     //holds the current piece
     protected PieceBoard currentPiece;
     //holds the next piece
@@ -51,7 +67,27 @@ public class ChallengeScene extends BaseScene {
     protected ProgressBar timerBar = new ProgressBar();
     //holds the high score that is displayed
     protected IntegerProperty highScore = new SimpleIntegerProperty(0);
+    //shows how close the board is to being stuck and the most lines the current piece can clear, from the tablebase
+    protected final Text danger = new Text("0%");
+    protected final Text bestClears = new Text("-");
     Timeline timeline;
+
+    //plays the game by itself while autoplay is toggled on
+    protected final AutoPlayer autoPlayer = new AutoPlayer();
+    protected Timeline autoPlay;
+    //true while the autoplayer is searching for its next move, so ticks that come in meanwhile are skipped
+    protected boolean autoThinking = false;
+    //time between the moves of the autoplayer in milliseconds
+    protected static final int AUTO_PLAY_DELAY = 400;
+
+    //works out hints by playing random games on from every placement
+    protected final RolloutEvaluator rolloutEvaluator = new RolloutEvaluator();
+    //the most rollouts and milliseconds spent on a hint
+    protected static final int HINT_ROLLOUTS = 2000;
+    protected static final int HINT_BUDGET = 250;
+
+    //records the game so it can be watched again, null when the game is not recorded
+    protected ReplayRecorder recorder;
     /**
      * Create a new Single Player challenge scene
      * @param gameWindow the Game Window
@@ -82,8 +118,12 @@ public class ChallengeScene extends BaseScene {
         var mainPane = new BorderPane();
         challengePane.getChildren().add(mainPane);
 
-        //set up the gameBoard
-        board = new GameBoard(this.game.getGrid(),gameWindow.getWidth()/2,gameWindow.getWidth()/2);
+        //set up the gameBoard, large boards are drawn on a single canvas rather than a canvas per block
+        if (game.getCols() * game.getRows() > CANVAS_BOARD_BLOCKS) {
+            board = new CanvasBoard(this.game.getGrid(),gameWindow.getWidth()/2,gameWindow.getWidth()/2);
+        } else {
+            board = new GameBoard(this.game.getGrid(),gameWindow.getWidth()/2,gameWindow.getWidth()/2);
+        }
         mainPane.setCenter(board);
         board.getStyleClass().add("gameBox1");
 
@@ -149,6 +189,24 @@ public class ChallengeScene extends BaseScene {
         level.getStyleClass().add("level");
         rightPart.getChildren().add(level);
 
+        //label for the danger of the board
+        var dangerLabel = new Text("Danger");
+        dangerLabel.getStyleClass().add("heading");
+        rightPart.getChildren().add(dangerLabel);
+
+        //text that holds the share of pieces that no longer fit on the board
+        danger.getStyleClass().add("level");
+        rightPart.getChildren().add(danger);
+
+        //label for the most lines the current piece can clear
+        var bestClearsLabel = new Text("Best Clear");
+        bestClearsLabel.getStyleClass().add("heading");
+        rightPart.getChildren().add(bestClearsLabel);
+
+        //text that holds the most lines the current piece can clear, or - if it doesn't fit
+        bestClears.getStyleClass().add("level");
+        rightPart.getChildren().add(bestClears);
+
         //label for the high score to beat
         Text highScoreLabel = new Text("High Score");
         highScoreLabel.getStyleClass().add("heading");
@@ -209,6 +267,21 @@ public class ChallengeScene extends BaseScene {
     protected void nextPiece(GamePiece nextPiece) {
        this.currentPiece.displayPiece(nextPiece);
        this.followingPiece.displayPiece(game.getFollowingPiece());
+       showTablebase();
+    }
+
+    /**
+     * looks up the tablebase entry of the board and shows its danger and the most lines the current piece can clear
+     */
+    protected void showTablebase(){
+        GamePiece current = game.getCurrentPiece();
+        game.tablebaseEntry().thenAccept(entry -> Platform.runLater(() -> {
+            //the entry is dropped if the pieces changed while it was worked out
+            if(game.getCurrentPiece() != current) return;
+            danger.setText(Math.round(game.getDanger(entry) * 100) + "%");
+            int clears = game.getBestClears(entry);
+            bestClears.setText(clears < 0 ? "-" : String.valueOf(clears));
+        }));
     }
 
 
@@ -217,37 +290,33 @@ public class ChallengeScene extends BaseScene {
      * @param gameBlock the Game Block that was clocked
      */
     protected void blockClicked(GameBlock gameBlock) {
-        if(this.game.blockClicked(gameBlock))
-            game.resetGameLoop();
+        //the game starts its timer again once the piece is placed
+        this.game.blockClicked(gameBlock);
     }
 
     /**
-     * rotates and displays the rotated piece on the pieceBoard
+     * rotates the piece, which the pieceBoard shows once the game has rotated it
      */
     public void rotate(){
         game.rotatePiece();
-        currentPiece.displayPiece(game.getCurrentPiece());
         Multimedia.playAudio("rotate.wav");
     }
 
     /**
-     * rotates and displays the rotated piece on the pieceBoard
+     * rotates the piece, which the pieceBoard shows once the game has rotated it
      * @param rotations stores the type of rotation to be performed
      */
     public void rotate(int rotations){
         game.rotatePiece(rotations);
-        currentPiece.displayPiece(game.getCurrentPiece());
         Multimedia.playAudio("rotate.wav");
     }
 
     /**
-     * swaps the current piece with the next one and displays
-     * this change in the pieceBoards
+     * swaps the current piece with the next one, which the
+     * pieceBoards show once the game has swapped them
      */
     public void swap(){
         game.swapCurrentPiece();
-        currentPiece.displayPiece(game.getCurrentPiece());
-        followingPiece.displayPiece(game.getFollowingPiece());
         Multimedia.playAudio("rotate.wav");
     }
 
@@ -258,7 +327,30 @@ public class ChallengeScene extends BaseScene {
         logger.info("Starting a new challenge");
 
         //Start new game
-        this.game = new Game(5, 5);
+        this.game = new Game(BOARD_COLS, BOARD_ROWS);
+
+        //every action on the game is recorded
+        recorder = new ReplayRecorder(game.getCols(), game.getRows(), game.getPieceSequence().getSeed());
+        game.getEngine().addActionListener(recorder);
+    }
+
+    /**
+     * starts the game, called once the scene is initialised
+     */
+    protected void startGame(){
+        game.start();
+    }
+
+    /**
+     * saves the recording of the game, if it is being recorded
+     */
+    protected void saveReplay(){
+        if(recorder == null) return;
+        try {
+            logger.info("Saved replay to {}", recorder.save(Replay.DIRECTORY));
+        } catch (IOException e) {
+            logger.error("Unable to save replay: {}", e.getMessage());
+        }
     }
 
     /**
@@ -275,7 +367,7 @@ public class ChallengeScene extends BaseScene {
         this.scene.setOnKeyPressed(this::pressedKey);
 
         //listens to when a line is cleared and calls the respective in class method
-        this.game.setLineClearedListener(this::clearedLine);
+        this.game.setLinesClearedListener(this::clearedLine);
 
         //listens to when a game loop starts and calls the respective in class method
         this.game.setOnGameLoop(this::gameLoop);
@@ -286,12 +378,16 @@ public class ChallengeScene extends BaseScene {
         highScore.set((scores.get(0)).getValue());
 
         //starts the game
-        game.start();
+        startGame();
 
         //after the game is over the game stops and the scores scene is displayed
         this.game.setOnGameOver(() -> {
            game.stop();
            timeline.stop();
+           stopAutoPlay();
+           //the final score is recorded so the replay can back up the high score
+           if(recorder != null) recorder.finish(game.getScore().get());
+           saveReplay();
            gameWindow.startScores(this.game);
         });
 
@@ -308,8 +404,18 @@ public class ChallengeScene extends BaseScene {
         if(key.getCode().equals(KeyCode.ESCAPE)){
             game.stop();
             timeline.stop();
+            stopAutoPlay();
+            saveReplay();
             gameWindow.startMenu();
         }
+        //when h is pressed a hint is shown
+        else if(key.getCode().equals(KeyCode.H)){
+            hint();
+        }
+        //when p is pressed the autoplayer is toggled on or off
+        else if(key.getCode().equals(KeyCode.P)){
+            toggleAutoPlay();
+        }
         //when space or r is pressed the pieces swap
         else if(key.getCode().equals(KeyCode.SPACE) || key.getCode().equals(KeyCode.R)){
             swap();
@@ -356,12 +462,123 @@ public class ChallengeScene extends BaseScene {
         }
     }
 
+    /**
+     * starts the autoplayer if it's off and stops it if it's on
+     */
+    public void toggleAutoPlay(){
+        if(autoPlay != null){
+            logger.info("Stopping autoplay");
+            stopAutoPlay();
+            return;
+        }
+        logger.info("Starting autoplay");
+        autoPlay = new Timeline(new KeyFrame(Duration.millis(AUTO_PLAY_DELAY), e -> autoMove()));
+        autoPlay.setCycleCount(Timeline.INDEFINITE);
+        autoPlay.play();
+    }
+
+    /**
+     * stops the autoplayer if it's on
+     */
+    protected void stopAutoPlay(){
+        if(autoPlay != null){
+            autoPlay.stop();
+            autoPlay = null;
+        }
+    }
+
+    /**
+     * lets the autoplayer work out its next move in the background, so large boards don't hold up the
+     * user interface while it searches
+     */
+    protected void autoMove(){
+        if(autoThinking) return;
+        Grid grid = game.getGrid().copy();
+        GamePiece current = game.getCurrentPiece();
+        GamePiece following = game.getFollowingPiece();
+        int multiplier = game.getMultiplier().get();
+        autoThinking = true;
+        CompletableFuture
+                .supplyAsync(() -> autoPlayer.decide(grid, current, following, multiplier))
+                .whenComplete((decision, error) -> Platform.runLater(() -> {
+                    autoThinking = false;
+                    if(error != null){
+                        logger.error("Autoplayer failed: {}", error.getMessage());
+                        return;
+                    }
+                    makeAutoMove(decision, current, following);
+                }));
+    }
+
+    /**
+     * makes the autoplayer's move, swapping and rotating the pieces the same way a player would
+     * so the pieceBoards and sounds follow along. If nothing fits the timer is left to run out
+     * @param decision the move, or null if nothing fits
+     * @param current the current piece the move was worked out for
+     * @param following the following piece the move was worked out for
+     */
+    protected void makeAutoMove(Decision decision, GamePiece current, GamePiece following){
+        //the move is dropped if autoplay was turned off or the pieces changed while it was worked out
+        if(decision == null || autoPlay == null || game.getCurrentPiece() != current
+                || game.getFollowingPiece() != following) return;
+
+        //the game makes the moves in order, so the rotation is worked out from the piece the swap will bring in
+        GamePiece piece = decision.isSwap() ? game.getFollowingPiece() : game.getCurrentPiece();
+        if(decision.isSwap()){
+            swap();
+        }
+        int rotations = (decision.getRotation() - piece.getRotation()) & 3;
+        if(rotations != 0){
+            rotate(rotations);
+        }
+        game.placePiece(decision.getX(), decision.getY());
+    }
+
+    /**
+     * works out the best placement in the background and shows it once it's ready
+     */
+    public void hint(){
+        Grid grid = game.getGrid().copy();
+        GamePiece current = game.getCurrentPiece();
+        GamePiece following = game.getFollowingPiece();
+        CompletableFuture
+                .supplyAsync(() -> RolloutEvaluator.best(
+                        rolloutEvaluator.evaluate(grid, current, following, HINT_ROLLOUTS, HINT_BUDGET)))
+                .thenAccept(best -> Platform.runLater(() -> showHint(best, current, following)));
+    }
+
+    /**
+     * shows a hint by swapping and rotating the pieces for it and moving the keyboard cursor to where the
+     * piece should be placed
+     * @param best the best placement found
+     * @param current the current piece the hint was worked out for
+     * @param following the following piece the hint was worked out for
+     */
+    protected void showHint(RolloutResult best, GamePiece current, GamePiece following){
+        //the hint is dropped if the pieces changed while it was worked out
+        if(best == null || game.getCurrentPiece() != current || game.getFollowingPiece() != following) return;
+        logger.info("Hint: {}", best);
+
+        GamePiece piece = best.isSwap() ? following : current;
+        if(best.isSwap()){
+            swap();
+        }
+        int rotations = (best.getRotation() - piece.getRotation()) & 3;
+        if(rotations != 0){
+            rotate(rotations);
+        }
+        //pieces are placed on their centre block
+        rowPosition = best.getX() + 1;
+        columnPosition = best.getY() + 1;
+        board.getBlock(rowPosition,columnPosition).doHover();
+    }
+
     /**
      * handles the clearing and fade out animation on the board
-     * @param blockCoordinates are the blocks to be faded
+     * @param result holds the blocks to be faded
      */
-    public void clearedLine(HashSet<GameBlockCoordinate> blockCoordinates){
-        board.fadeOut(blockCoordinates);
+    public void clearedLine(ClearResult result){
+        board.fadeOut(result);
     }
 
     /**
@@ -371,7 +588,7 @@ public class ChallengeScene extends BaseScene {
     protected void gameLoop(int nextLoop) {
         timeline = new Timeline(
                 new KeyFrame(Duration.ZERO, new KeyValue(timerBar.progressProperty(), 1)),
-                new KeyFrame(Duration.millis(game.getTimeDelay()), e-> {
+                new KeyFrame(Duration.millis(nextLoop), e-> {
                 }, new KeyValue(timerBar.progressProperty(), 0))
         );
         timeline.play();
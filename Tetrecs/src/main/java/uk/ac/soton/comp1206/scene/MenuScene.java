@@ -15,9 +15,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.App;
 import uk.ac.soton.comp1206.Utilities.Multimedia;
+import uk.ac.soton.comp1206.replay.Replay;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * The main menu of the game. Provides a gateway to the rest of the game.
  */
@@ -91,6 +95,10 @@ public class MenuScene extends BaseScene {
         instructionsButton.getStyleClass().add("menuItem");
         menu.getChildren().add(instructionsButton);
 
+        var replayButton = new Button("Watch Replay");
+        replayButton.getStyleClass().add("menuItem");
+        menu.getChildren().add(replayButton);
+
         var exitButton = new Button("        EXIT        ");
         exitButton.getStyleClass().add("menuItem");
         menu.getChildren().add(exitButton);
@@ -111,6 +119,9 @@ public class MenuScene extends BaseScene {
         //multiplayer button opens the multiplayer lobby
         multiPlayerButton.setOnAction(this::startLobby);
 
+        //replay button plays back the last recorded game
+        replayButton.setOnAction(this::startReplay);
+
         //when the ECS logo is pressed the user is taken to the settings
         logoImage.setOnMouseClicked(e -> {
             Multimedia.playAudio("pling.wav");
@@ -160,4 +171,21 @@ public class MenuScene extends BaseScene {
     private void startLobby(ActionEvent event){
         gameWindow.startLobby();
     }
+
+    /**
+     * Handle when the Watch Replay button is pressed by playing back the newest replay, if there is one
+     * @param event event
+     */
+    private void startReplay(ActionEvent event){
+        try {
+            Path file = Replay.latest(Replay.DIRECTORY);
+            if(file == null){
+                logger.info("No replays to watch");
+                return;
+            }
+            gameWindow.startReplay(Replay.read(file));
+        } catch (IOException e) {
+            logger.error("Unable to load replay: {}", e.getMessage());
+        }
+    }
 }
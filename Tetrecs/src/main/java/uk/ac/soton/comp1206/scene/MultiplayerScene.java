@@ -218,7 +218,7 @@ public class MultiplayerScene extends ChallengeScene{
         logger.info("Initialising Multiplayer");
         this.game.setNextPieceListener(this::nextPiece);
         this.scene.setOnKeyPressed(this::pressedKey);
-        this.game.setLineClearedListener(this::clearedLine);
+        this.game.setLinesClearedListener(this::clearedLine);
         this.game.setOnGameLoop(this::gameLoop);
 
         ArrayList<Pair<String, Integer>> scores = ScoresScene.loadScores();
@@ -278,9 +278,8 @@ public class MultiplayerScene extends ChallengeScene{
         }
         //these scores are sorted
         multiplayerScoresArray.sort((score1, score2) -> (score2.getValue()).compareTo(score1.getValue()));
-        //the list is cleared to be updated without any redundancies
-        multiplayerScoreList.clear();
-        multiplayerScoreList.addAll(multiplayerScoresArray);
+        //the list is replaced in one change, so the leaderboard only updates once
+        multiplayerScoreList.setAll(multiplayerScoresArray);
     }
 
     /**
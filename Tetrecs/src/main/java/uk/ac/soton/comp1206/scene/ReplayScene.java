@@ -0,0 +1,125 @@
+package uk.ac.soton.comp1206.scene;
+
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.GameAction;
+import uk.ac.soton.comp1206.replay.Replay;
+import uk.ac.soton.comp1206.replay.ReplayPlayer;
+import uk.ac.soton.comp1206.ui.GameWindow;
+
+/**
+ * The Replay scene. Plays a recorded game back on the challenge board, with the same pieces and actions at the
+ * times they were made, sped up if wanted.
+ */
+public class ReplayScene extends ChallengeScene {
+    private static final Logger logger = LogManager.getLogger(ReplayScene.class);
+
+    //the recorded game
+    private final Replay replay;
+    //plays the actions of the replay on the game
+    private ReplayPlayer player;
+
+    /**
+     * Create a new Replay scene
+     * @param gameWindow the Game Window
+     * @param replay the replay to play back
+     */
+    public ReplayScene(GameWindow gameWindow, Replay replay) {
+        super(gameWindow);
+        this.replay = replay;
+        logger.info("Creating Replay Scene");
+    }
+
+    /**
+     * Setup a game dealing the same pieces as the recorded one
+     */
+    @Override
+    public void setupGame() {
+        logger.info("Starting a replay of {} actions", replay.getActions());
+        this.game = new Game(replay.getCols(), replay.getRows(), replay.getSeed());
+    }
+
+    /**
+     * starts the game without its timer, as the replay decides when the timer ran out, and starts playing
+     */
+    @Override
+    protected void startGame() {
+        game.initialiseGame();
+        player = new ReplayPlayer(replay, this::replayAction);
+        player.setOnFinished(() -> logger.info("Replay finished"));
+        player.play(1);
+    }
+
+    /**
+     * Initialise the scene and start the replay
+     */
+    @Override
+    public void initialise() {
+        super.initialise();
+
+        //the replay stays on the board once the game is over
+        this.game.setOnGameOver(() -> {
+            player.stop();
+            game.stop();
+            if(timeline != null) timeline.stop();
+        });
+    }
+
+    /**
+     * makes a recorded action the way a player would, so the pieceBoards and sounds follow along
+     * @param action the action
+     * @param x x coordinate of the piece for placements
+     * @param y y coordinate of the piece for placements
+     * @param rotation the number of rotations for rotations
+     */
+    protected void replayAction(GameAction action, int x, int y, int rotation) {
+        switch (action) {
+            case PLACE -> game.placePiece(x, y);
+            case ROTATE -> rotate(rotation);
+            case SWAP -> swap();
+            case TIMEOUT -> game.timeout();
+        }
+    }
+
+    /**
+     * clicks are ignored while watching a replay
+     * @param gameBlock the Game Block that was clicked
+     */
+    @Override
+    protected void blockClicked(GameBlock gameBlock) {
+    }
+
+    /**
+     * clicks are ignored while watching a replay
+     */
+    @Override
+    public void rotate() {
+    }
+
+    /**
+     * escape goes back to the menu and 1, 2 and 3 play the replay at 1x, 4x and 16x
+     * @param key is the key that is pressed
+     */
+    @Override
+    public void pressedKey(KeyEvent key) {
+        if(key.getCode().equals(KeyCode.ESCAPE)){
+            player.stop();
+            game.stop();
+            if(timeline != null) timeline.stop();
+            gameWindow.startMenu();
+        }
+        else if(key.getCode().equals(KeyCode.DIGIT1)){
+            player.setSpeed(1);
+        }
+        else if(key.getCode().equals(KeyCode.DIGIT2)){
+            player.setSpeed(4);
+        }
+        else if(key.getCode().equals(KeyCode.DIGIT3)){
+            player.setSpeed(16);
+        }
+    }
+}
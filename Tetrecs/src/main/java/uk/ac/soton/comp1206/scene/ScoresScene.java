@@ -291,10 +291,8 @@ public class ScoresScene extends BaseScene {
         }
         //online scores are sorted
         remoteScoresArray.sort((score1, score2) -> (score2.getValue()).compareTo(score1.getValue()));
-        //the previous list is cleared
-        remoteScores.clear();
-        //the remote scores are now displayed with the users score in them
-        remoteScores.addAll(remoteScoresArray);
+        //the previous list is replaced in one change, so the scores list only updates once
+        remoteScores.setAll(remoteScoresArray);
 
         //the users score is stored
         int myScore = game.getScore().get();
@@ -357,10 +355,8 @@ public class ScoresScene extends BaseScene {
                //the score is added in the array and then sorted
                remoteScoresArray.add(new Pair(nameField.getText(),myScore));
                remoteScoresArray.sort((score1, score2) -> (score2.getValue()).compareTo(score1.getValue()));
-               //the previous list is cleared
-               remoteScores.clear();
-               //the remote scores are now displayed with the users score in them
-               remoteScores.addAll(remoteScoresArray);
+               //the previous list is replaced in one change, with the users score in it
+               remoteScores.setAll(remoteScoresArray);
 
                communicator.send("HISCORE " + nameField.getText() + ":" + myScore);
                this.communicator.send("HISCORES");
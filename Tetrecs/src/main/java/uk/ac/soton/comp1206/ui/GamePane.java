@@ -6,6 +6,7 @@ import javafx.scene.transform.Scale;
 import javafx.scene.transform.Translate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.component.BlockSprites;
 
 /**
  * The Game Pane is a special pane which will scale anything inside it to the screen and maintain the aspect ratio.
@@ -48,6 +49,8 @@ public class GamePane extends StackPane {
      */
     protected void setScalar(double scalar) {
         this.scalar = scalar;
+        //blocks are pre-rendered at the size they are shown, so they are rendered again at the new scale
+        BlockSprites.setScale(scalar);
     }
 
     /**
@@ -11,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.App;
 import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.network.Communicator;
+import uk.ac.soton.comp1206.replay.Replay;
 import uk.ac.soton.comp1206.scene.*;
 
 /**
@@ -103,6 +104,10 @@ public class GameWindow {
     public void startScores(Game game){
         loadScene((new ScoresScene(this,game)));
     }
+    /**
+     * Display a replay
+     */
+    public void startReplay(Replay replay) { loadScene(new ReplayScene(this, replay)); }
     /**
      * Display the intro
      */
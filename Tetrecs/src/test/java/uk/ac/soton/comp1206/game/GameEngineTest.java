@@ -0,0 +1,78 @@
+package uk.ac.soton.comp1206.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the lines cleared and the score given by placing single blocks on a 5x5 game.
+ */
+class GameEngineTest {
+
+    /**
+     * The piece made of one block in the centre of its 3x3 grid
+     */
+    private static final int DOT = 3;
+
+    private GameEngine engine;
+
+    @BeforeEach
+    void setup() {
+        PieceSequence pieces = PieceSequence.fed();
+        for (int i = 0; i < 4; i++) pieces.offer(DOT);
+        engine = new GameEngine(5, 5, pieces);
+        engine.initialisePieces();
+    }
+
+    @Test
+    void crossingRowAndColumnBothClear() {
+        //row 2 and column 2 are full apart from the block they share
+        for (int i = 0; i < 5; i++) {
+            if (i == 2) continue;
+            engine.getGrid().set(i, 2, 1);
+            engine.getGrid().set(2, i, 1);
+        }
+        engine.getGrid().set(0, 0, 1);
+
+        assertTrue(engine.blockClicked(2, 2));
+
+        ClearResult result = engine.getClearResult();
+        assertEquals(2, result.getLines());
+        assertTrue(result.isRowCleared(2));
+        assertTrue(result.isColCleared(2));
+        //the shared block is only counted once
+        assertEquals(9, result.getBlocks());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, engine.getGrid().get(i, 2));
+            assertEquals(0, engine.getGrid().get(2, i));
+        }
+        assertEquals(1, engine.getGrid().get(0, 0));
+
+        //2 lines * 9 blocks * 10 * a multiplier of 2
+        assertEquals(2, engine.getMultiplier());
+        assertEquals(360, engine.getScore());
+    }
+
+    @Test
+    void singleRowClears() {
+        for (int x = 0; x < 4; x++) engine.getGrid().set(x, 1, 1);
+
+        assertTrue(engine.blockClicked(4, 1));
+
+        assertEquals(1, engine.getClearResult().getLines());
+        assertEquals(5, engine.getClearResult().getBlocks());
+        assertEquals(100, engine.getScore());
+    }
+
+    @Test
+    void multiplierResetsWhenNothingClears() {
+        for (int x = 0; x < 4; x++) engine.getGrid().set(x, 1, 1);
+        engine.blockClicked(4, 1);
+        engine.blockClicked(0, 0);
+
+        assertEquals(0, engine.getClearResult().getLines());
+        assertEquals(1, engine.getMultiplier());
+        assertEquals(100, engine.getScore());
+    }
+}
@@ -0,0 +1,175 @@
+package uk.ac.soton.comp1206.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays random pieces on bitboard grids and checks them against a plain array of block values.
+ */
+class GridTest {
+
+    /**
+     * The obvious grid: an array of block values, with full lines found by looking at every block
+     */
+    private static final class ReferenceGrid {
+        private final int cols;
+        private final int rows;
+        private final int[][] blocks;
+
+        ReferenceGrid(int cols, int rows) {
+            this.cols = cols;
+            this.rows = rows;
+            this.blocks = new int[cols][rows];
+        }
+
+        boolean play(GamePiece piece, int x, int y) {
+            for (int i = 0; i < piece.getBlockCount(); i++) {
+                int gridX = x + piece.getBlockX(i);
+                int gridY = y + piece.getBlockY(i);
+                if (gridX < 0 || gridY < 0 || gridX >= cols || gridY >= rows || blocks[gridX][gridY] != 0) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < piece.getBlockCount(); i++) {
+                blocks[x + piece.getBlockX(i)][y + piece.getBlockY(i)] = piece.getValue();
+            }
+            return true;
+        }
+
+        /**
+         * Clear every full row and column at once
+         * @return the lines and the blocks cleared
+         */
+        int[] clear() {
+            boolean[] fullRows = new boolean[rows];
+            boolean[] fullCols = new boolean[cols];
+            int lines = 0;
+            for (int y = 0; y < rows; y++) {
+                fullRows[y] = true;
+                for (int x = 0; x < cols; x++) fullRows[y] &= blocks[x][y] != 0;
+                if (fullRows[y]) lines++;
+            }
+            for (int x = 0; x < cols; x++) {
+                fullCols[x] = true;
+                for (int y = 0; y < rows; y++) fullCols[x] &= blocks[x][y] != 0;
+                if (fullCols[x]) lines++;
+            }
+            int cleared = 0;
+            for (int x = 0; x < cols; x++) {
+                for (int y = 0; y < rows; y++) {
+                    if (fullRows[y] || fullCols[x]) {
+                        blocks[x][y] = 0;
+                        cleared++;
+                    }
+                }
+            }
+            return new int[] {lines, cleared};
+        }
+
+        int rowCount(int y) {
+            int count = 0;
+            for (int x = 0; x < cols; x++) if (blocks[x][y] != 0) count++;
+            return count;
+        }
+
+        int colCount(int x) {
+            int count = 0;
+            for (int y = 0; y < rows; y++) if (blocks[x][y] != 0) count++;
+            return count;
+        }
+    }
+
+    @Test
+    void matchesReferenceOnSmallGrid() {
+        playRandomPieces(5, 5, 1);
+    }
+
+    @Test
+    void matchesReferenceAcrossWordBoundaries() {
+        //rows of 13 blocks run across the 64 bit words of the bitboard
+        playRandomPieces(13, 11, 2);
+    }
+
+    private static void playRandomPieces(int cols, int rows, long seed) {
+        Random random = new Random(seed);
+        Grid grid = new Grid(cols, rows);
+        ReferenceGrid reference = new ReferenceGrid(cols, rows);
+        ClearResult result = new ClearResult(cols, rows);
+        int totalLines = 0;
+
+        for (int move = 0; move < 5000; move++) {
+            GamePiece piece = PieceCatalogue.get(random.nextInt(GamePiece.PIECES), random.nextInt(GamePiece.ROTATIONS));
+            int x = random.nextInt(cols + 2) - 2;
+            int y = random.nextInt(rows + 2) - 2;
+
+            boolean played = grid.playPiece(piece, x, y);
+            assertEquals(reference.play(piece, x, y), played, "placement " + move);
+            if (played) {
+                int lines = grid.clearLines(piece, x, y, result);
+                int[] expected = reference.clear();
+                assertEquals(expected[0], lines, "lines cleared by move " + move);
+                assertEquals(expected[1], result.getBlocks(), "blocks cleared by move " + move);
+                totalLines += lines;
+            }
+            assertSameBlocks(reference, grid);
+        }
+        assertTrue(totalLines > 0, "no lines were cleared");
+    }
+
+    private static void assertSameBlocks(ReferenceGrid reference, Grid grid) {
+        for (int x = 0; x < reference.cols; x++) {
+            for (int y = 0; y < reference.rows; y++) {
+                assertEquals(reference.blocks[x][y], grid.get(x, y), "block " + x + "," + y);
+                assertEquals(reference.blocks[x][y] != 0, grid.isOccupied(x, y), "block " + x + "," + y);
+            }
+        }
+        for (int y = 0; y < reference.rows; y++) assertEquals(reference.rowCount(y), grid.getRowCount(y));
+        for (int x = 0; x < reference.cols; x++) assertEquals(reference.colCount(x), grid.getColCount(x));
+        assertEquals(Zobrist.hashBlocks(grid), grid.getHash());
+    }
+
+    @Test
+    void restoresSnapshot() {
+        restoreSnapshot(false);
+    }
+
+    @Test
+    void restoresSnapshotBlockByBlockForListeners() {
+        restoreSnapshot(true);
+    }
+
+    private static void restoreSnapshot(boolean listened) {
+        Grid grid = new Grid(7, 6);
+        int[] heard = {0};
+        if (listened) grid.addListener((x, y, value) -> heard[0]++);
+        grid.playPiece(PieceCatalogue.get(0, 0), 0, 0);
+        BoardState before = grid.snapshot();
+        Grid copy = grid.copy();
+
+        grid.playPiece(PieceCatalogue.get(3, 1), 2, 2);
+        grid.playPiece(PieceCatalogue.get(8, 0), 4, 3);
+        heard[0] = 0;
+        grid.restore(before);
+
+        for (int x = 0; x < 7; x++) {
+            for (int y = 0; y < 6; y++) assertEquals(copy.get(x, y), grid.get(x, y));
+            assertEquals(copy.getColCount(x), grid.getColCount(x));
+        }
+        for (int y = 0; y < 6; y++) assertEquals(copy.getRowCount(y), grid.getRowCount(y));
+        assertEquals(copy.getHash(), grid.getHash());
+        assertEquals(listened, heard[0] > 0);
+    }
+
+    @Test
+    void setChecksPositionAndValue() {
+        Grid grid = new Grid(5, 5);
+        assertThrows(IndexOutOfBoundsException.class, () -> grid.set(5, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> grid.set(0, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> grid.set(0, 0, -1));
+        grid.set(4, 4, 3);
+        assertEquals(3, grid.get(4, 4));
+    }
+}
@@ -0,0 +1,99 @@
+package uk.ac.soton.comp1206.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the moves found by the MoveGenerator against trying every position and rotation of every piece.
+ */
+class MoveGeneratorTest {
+
+    @Test
+    void matchesBruteForceOnBitboardGrids() {
+        compareOnRandomGrids(5, 5, 1);
+    }
+
+    @Test
+    void matchesBruteForceOnLargeGrids() {
+        //more than 64 blocks, so placements are checked block by block
+        compareOnRandomGrids(9, 8, 2);
+    }
+
+    private static void compareOnRandomGrids(int cols, int rows, long seed) {
+        Random random = new Random(seed);
+        MoveGenerator generator = MoveGenerator.of(cols, rows);
+        int[] moves = generator.newMoveBuffer();
+
+        for (int board = 0; board < 200; board++) {
+            Grid grid = new Grid(cols, rows);
+            double density = random.nextDouble() * 0.6;
+            for (int x = 0; x < cols; x++) {
+                for (int y = 0; y < rows; y++) {
+                    if (random.nextDouble() < density) grid.set(x, y, 1);
+                }
+            }
+
+            for (int type = 0; type < GamePiece.PIECES; type++) {
+                Set<Set<Integer>> expected = bruteForce(grid, type);
+                int count = generator.generate(grid, type, moves);
+
+                Set<Set<Integer>> found = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    GamePiece piece = PieceCatalogue.get(type, MoveGenerator.moveRotation(moves[i]));
+                    int x = MoveGenerator.moveX(moves[i]);
+                    int y = MoveGenerator.moveY(moves[i]);
+                    assertTrue(grid.canPlayPiece(piece, x, y), "illegal move " + x + "," + y + " of " + piece);
+                    assertTrue(found.add(cells(piece, x, y, cols)), "repeated placement of " + piece);
+                }
+                assertEquals(expected, found, "placements of piece " + type);
+                assertEquals(count, generator.count(grid, type));
+                assertEquals(count > 0, generator.hasMove(grid, type));
+            }
+        }
+    }
+
+    /**
+     * Find the blocks covered by every legal placement of a piece by trying each one
+     */
+    private static Set<Set<Integer>> bruteForce(Grid grid, int type) {
+        Set<Set<Integer>> placements = new HashSet<>();
+        for (int rotation = 0; rotation < GamePiece.ROTATIONS; rotation++) {
+            GamePiece piece = GamePiece.createPiece(type, rotation);
+            for (int x = -2; x < grid.getCols(); x++) {
+                for (int y = -2; y < grid.getRows(); y++) {
+                    if (fits(grid, piece, x, y)) placements.add(cells(piece, x, y, grid.getCols()));
+                }
+            }
+        }
+        return placements;
+    }
+
+    private static boolean fits(Grid grid, GamePiece piece, int x, int y) {
+        int[][] blocks = piece.getBlocks();
+        for (int blockX = 0; blockX < 3; blockX++) {
+            for (int blockY = 0; blockY < 3; blockY++) {
+                if (blocks[blockX][blockY] == 0) continue;
+                int gridX = x + blockX;
+                int gridY = y + blockY;
+                if (gridX < 0 || gridY < 0 || gridX >= grid.getCols() || gridY >= grid.getRows()) return false;
+                if (grid.get(gridX, gridY) != 0) return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<Integer> cells(GamePiece piece, int x, int y, int cols) {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < piece.getBlockCount(); i++) {
+            cells.add(x + piece.getBlockX(i) + (y + piece.getBlockY(i)) * cols);
+        }
+        return new HashSet<>(cells);
+    }
+}
@@ -0,0 +1,77 @@
+package uk.ac.soton.comp1206.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a seed always deals the same pieces, however the sequence is looked at or rewound.
+ */
+class PieceSequenceTest {
+
+    @Test
+    void sameSeedDealsSamePieces() {
+        assertSameDeals(() -> new PieceSequence(1234));
+        assertSameDeals(() -> new PieceSequence(1234, PieceStrategy.bag(), 3));
+        assertSameDeals(() -> new PieceSequence(1234, PieceStrategy.weighted(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+                13, 14, 15), PieceSequence.DEFAULT_LOOKAHEAD));
+    }
+
+    private static void assertSameDeals(Supplier<PieceSequence> sequences) {
+        PieceSequence first = sequences.get();
+        PieceSequence second = sequences.get();
+        for (int i = 0; i < 1000; i++) {
+            int type = first.nextType();
+            assertTrue(type >= 0 && type < GamePiece.PIECES);
+            assertEquals(type, second.nextType(), "piece " + i);
+        }
+    }
+
+    @Test
+    void differentSeedsDealDifferentPieces() {
+        PieceSequence first = new PieceSequence(1);
+        PieceSequence second = new PieceSequence(2);
+        int same = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (first.nextType() == second.nextType()) same++;
+        }
+        assertTrue(same < 200, same + " of 1000 pieces matched");
+    }
+
+    @Test
+    void peekShowsThePiecesDealtNext() {
+        PieceSequence sequence = new PieceSequence(99);
+        PieceSequence reference = new PieceSequence(99);
+        for (int i = 0; i < 100; i++) {
+            int[] ahead = new int[sequence.available()];
+            for (int j = 0; j < ahead.length; j++) ahead[j] = sequence.peek(j);
+            for (int type : ahead) assertEquals(reference.nextType(), type);
+            for (int type : ahead) assertEquals(type, sequence.nextType());
+        }
+        assertEquals(reference.getDealt(), sequence.getDealt());
+    }
+
+    @Test
+    void rewindDealsTheSamePiecesAgain() {
+        PieceSequence sequence = new PieceSequence(7, PieceStrategy.bag(), 2);
+        int[] dealt = new int[200];
+        for (int i = 0; i < dealt.length; i++) dealt[i] = sequence.nextType();
+
+        sequence.rewind(50);
+        for (int i = 50; i < dealt.length; i++) assertEquals(dealt[i], sequence.nextType(), "piece " + i);
+        assertThrows(IllegalArgumentException.class, () -> sequence.rewind(10_000));
+    }
+
+    @Test
+    void fedSequenceDealsWhatItIsGiven() {
+        PieceSequence sequence = PieceSequence.fed();
+        assertEquals(-1, sequence.nextType());
+        sequence.offer(3);
+        sequence.offer(14);
+        assertEquals(3, sequence.nextType());
+        assertEquals(14, sequence.nextType());
+        assertNull(sequence.spawnPiece());
+    }
+}
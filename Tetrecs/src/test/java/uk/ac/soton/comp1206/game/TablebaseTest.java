@@ -0,0 +1,71 @@
+package uk.ac.soton.comp1206.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes a small tablebase and checks every packed entry reads back as the generator worked it out.
+ */
+class TablebaseTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryEntry() throws IOException {
+        Path file = directory.resolve(Tablebase.defaultFile(4, 4));
+        TablebaseGenerator generator = new TablebaseGenerator(4, 4);
+        generator.generate(file);
+        assertEquals(Tablebase.HEADER_BYTES + ((long) Tablebase.ENTRY_BYTES << 16), Files.size(file));
+
+        Tablebase tablebase = Tablebase.open(file);
+        for (int board = 0; board < 1 << 16; board++) {
+            assertEquals(generator.entry(board), tablebase.entry(board), "board " + board);
+        }
+
+        //on an empty board every piece fits, and a full board fits none
+        assertEquals(0, Tablebase.blockedPieces(tablebase.entry(0)));
+        assertEquals(GamePiece.PIECES, Tablebase.blockedPieces(tablebase.entry(0xFFFF)));
+        assertEquals(-1, Tablebase.bestClears(tablebase.entry(0xFFFF), 0));
+    }
+
+    @Test
+    void bestClearsMatchesPlayingEveryMove() {
+        TablebaseGenerator generator = new TablebaseGenerator(5, 5);
+        MoveGenerator moves = MoveGenerator.of(5, 5);
+        int[] buffer = moves.newMoveBuffer();
+        ClearResult result = new ClearResult(5, 5);
+        Random random = new Random(3);
+
+        for (int board = 0; board < 300; board++) {
+            long occupancy = random.nextLong() & random.nextLong() & ((1L << 25) - 1);
+            Grid grid = new Grid(5, 5);
+            for (int i = 0; i < 25; i++) {
+                if ((occupancy & (1L << i)) != 0) grid.set(i % 5, i / 5, 1);
+            }
+            long entry = generator.entry(occupancy);
+            assertEquals(entry, generator.entry(grid));
+
+            for (int type = 0; type < GamePiece.PIECES; type++) {
+                int best = -1;
+                int count = moves.generate(grid, type, buffer);
+                for (int i = 0; i < count; i++) {
+                    Grid played = grid.copy();
+                    GamePiece piece = PieceCatalogue.get(type, MoveGenerator.moveRotation(buffer[i]));
+                    int x = MoveGenerator.moveX(buffer[i]);
+                    int y = MoveGenerator.moveY(buffer[i]);
+                    played.playPiece(piece, x, y);
+                    best = Math.max(best, played.clearLines(piece, x, y, result));
+                }
+                assertEquals(best, Tablebase.bestClears(entry, type), "piece " + type + " on board " + occupancy);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package uk.ac.soton.comp1206.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a VirtualClock runs its tasks in order of time, and only as it is advanced.
+ */
+class VirtualClockTest {
+
+    @Test
+    void runsTasksInOrderOfTime() {
+        VirtualClock clock = new VirtualClock();
+        List<String> run = new ArrayList<>();
+        clock.schedule(() -> run.add("c"), 300);
+        clock.schedule(() -> run.add("a"), 100);
+        clock.schedule(() -> run.add("b1"), 200);
+        clock.schedule(() -> run.add("b2"), 200);
+
+        assertEquals(0, clock.advance(99));
+        assertTrue(run.isEmpty());
+        assertEquals(3, clock.advance(101));
+        assertEquals(List.of("a", "b1", "b2"), run);
+        assertEquals(200, clock.now());
+
+        assertTrue(clock.runNext());
+        assertEquals(List.of("a", "b1", "b2", "c"), run);
+        assertEquals(300, clock.now());
+        assertFalse(clock.runNext());
+    }
+
+    @Test
+    void tasksSeeTheirOwnTime() {
+        VirtualClock clock = new VirtualClock();
+        List<Long> times = new ArrayList<>();
+        clock.schedule(() -> times.add(clock.now()), 50);
+        clock.schedule(() -> times.add(clock.now()), 20);
+        clock.advance(1000);
+        assertEquals(List.of(20L, 50L), times);
+        assertEquals(1000, clock.now());
+    }
+
+    @Test
+    void runsTasksScheduledByTasksThatFallDue() {
+        VirtualClock clock = new VirtualClock();
+        List<Long> times = new ArrayList<>();
+        //a game loop scheduling itself again every 100 milliseconds
+        Runnable[] loop = new Runnable[1];
+        loop[0] = () -> {
+            times.add(clock.now());
+            clock.schedule(loop[0], 100);
+        };
+        clock.schedule(loop[0], 100);
+
+        assertEquals(5, clock.advance(550));
+        assertEquals(List.of(100L, 200L, 300L, 400L, 500L), times);
+        assertEquals(1, clock.getPending());
+    }
+
+    @Test
+    void cancelledTasksDoNotRun() {
+        VirtualClock clock = new VirtualClock();
+        List<String> run = new ArrayList<>();
+        GameClock.Task cancelled = clock.schedule(() -> run.add("cancelled"), 10);
+        clock.schedule(() -> run.add("kept"), 20);
+        cancelled.cancel();
+
+        assertEquals(1, clock.advance(100));
+        assertEquals(List.of("kept"), run);
+    }
+}
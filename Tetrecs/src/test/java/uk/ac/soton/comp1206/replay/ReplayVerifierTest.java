@@ -0,0 +1,113 @@
+package uk.ac.soton.comp1206.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Records seeded games, saves them, reads them back and checks the verifier agrees with the score they reached.
+ */
+class ReplayVerifierTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Play a game to the end with random moves, recording it
+     * @return the engine at the end of the game
+     */
+    private static GameEngine play(long seed, ReplayRecorder recorder) {
+        GameEngine engine = new GameEngine(5, 5, seed);
+        engine.initialisePieces();
+        engine.addActionListener(recorder);
+        SplittableRandom random = new SplittableRandom(seed);
+        MoveGenerator generator = MoveGenerator.of(5, 5);
+        int[] moves = generator.newMoveBuffer();
+
+        while (!engine.isGameOver()) {
+            switch (random.nextInt(10)) {
+                case 0 -> engine.rotatePiece(random.nextInt(1, 4));
+                case 1 -> engine.swapCurrentPiece();
+                case 2 -> engine.placePiece(random.nextInt(-2, 5), random.nextInt(-2, 5));
+                default -> {
+                    int count = generator.generate(engine.getGrid(), engine.getCurrentPiece(), moves);
+                    if (count == 0 || random.nextInt(30) == 0) {
+                        engine.timeout();
+                    } else {
+                        int move = moves[random.nextInt(count)];
+                        engine.rotatePiece(MoveGenerator.moveRotation(move) - engine.getCurrentPiece().getRotation());
+                        engine.placePiece(MoveGenerator.moveX(move), MoveGenerator.moveY(move));
+                    }
+                }
+            }
+        }
+        return engine;
+    }
+
+    @Test
+    void savedGamesVerify() throws IOException {
+        long[] time = {0};
+        for (long seed = 1; seed <= 20; seed++) {
+            ReplayRecorder recorder = new ReplayRecorder(5, 5, seed, () -> time[0] += 37);
+            GameEngine engine = play(seed, recorder);
+            recorder.finish(engine.getScore());
+            Path file = recorder.save(directory.resolve("game" + seed));
+
+            Replay replay = Replay.read(file);
+            assertEquals(seed, replay.getSeed());
+            assertEquals(engine.getScore(), replay.getClaimedScore());
+            assertEquals(engine.getScore(), ReplayPlayer.simulate(replay).getScore());
+
+            VerificationResult result = ReplayVerifier.verify(file);
+            assertTrue(result.isPass(), result.toString());
+            assertEquals(engine.getScore(), result.getScore());
+        }
+    }
+
+    @Test
+    void movesAfterTheGameEndsAreNotRecorded() throws IOException {
+        ReplayRecorder recorder = new ReplayRecorder(5, 5, 42, () -> 0);
+        GameEngine engine = play(42, recorder);
+        int score = engine.getScore();
+        int size = recorder.getSize();
+
+        //moves the interface sends before it hears the game is over
+        assertFalse(engine.placePiece(1, 1));
+        engine.rotatePiece(1);
+        engine.swapCurrentPiece();
+        assertFalse(engine.timeout());
+        assertEquals(size, recorder.getSize());
+        assertEquals(score, engine.getScore());
+
+        recorder.finish(score);
+        assertTrue(ReplayVerifier.verify("late moves", recorder.toReplay()).isPass());
+    }
+
+    @Test
+    void wrongScoresFail() throws IOException {
+        ReplayRecorder recorder = new ReplayRecorder(5, 5, 7, () -> 0);
+        GameEngine engine = play(7, recorder);
+        recorder.finish(engine.getScore() + 10);
+        recorder.save(directory);
+
+        ReplayRecorder unfinished = new ReplayRecorder(5, 5, 8, () -> 0);
+        play(8, unfinished);
+        unfinished.save(directory.resolve("unfinished"));
+        Files.write(directory.resolve("broken" + Replay.EXTENSION), new byte[] {'T', 'R', 'P'});
+
+        List<VerificationResult> results = new ReplayVerifier().verifyAll(directory);
+        assertEquals(2, results.size());
+        for (VerificationResult result : results) assertFalse(result.isPass(), result.toString());
+        assertEquals("no score recorded",
+                ReplayVerifier.verify(unfinished.save(directory.resolve("unfinished"))).getReason());
+    }
+}